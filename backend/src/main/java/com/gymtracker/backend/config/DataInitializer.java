@@ -2,6 +2,7 @@ package com.gymtracker.backend.config;
 
 import com.gymtracker.backend.model.TrainingPlanTemplate;
 import com.gymtracker.backend.repository.TrainingPlanTemplateRepository;
+import com.gymtracker.backend.service.VolumeRollupService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,4 +40,14 @@ public class DataInitializer {
             }
         };
     }
+
+    // Backfill weekly volume rollups for databases created before the rollup table existed
+    @Bean
+    CommandLineRunner initVolumeRollups(VolumeRollupService rollupService) {
+        return args -> {
+            if (rollupService.isEmpty()) {
+                rollupService.rebuildAll();
+            }
+        };
+    }
 }
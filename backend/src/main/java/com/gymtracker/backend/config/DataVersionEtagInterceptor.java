@@ -0,0 +1,38 @@
+package com.gymtracker.backend.config;
+
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.security.CurrentUserArgumentResolver;
+import com.gymtracker.backend.service.DataVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+
+/**
+ * Conditional GETs for per-user data. The ETag is built from the user's data version and the
+ * current date (responses depend on "today"), so a matching If-None-Match is answered with 304
+ * before the handler runs. Handlers are only called when the data may have changed; a write racing
+ * with the request at worst makes the client fetch the same data once more.
+ */
+@Component
+public class DataVersionEtagInterceptor implements HandlerInterceptor {
+    @Autowired private DataVersionService dataVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod())) return true;
+        Object user = request.getAttribute(CurrentUserArgumentResolver.CURRENT_USER_ATTRIBUTE);
+        if (!(user instanceof User)) return true;
+        Long userId = ((User) user).getId();
+        String etag = "W/\"" + userId + "-" + dataVersionService.current(userId) + "-" + LocalDate.now() + "\"";
+        // Per-user data: clients may keep it but must revalidate, shared caches must not store it
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        // Sets the ETag header, and the 304 status if it matches
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,58 @@
+package com.gymtracker.backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regions of Hibernate's second-level cache: in-process Caffeine caches behind JCache for plan
+ * templates, training plans, their exercise lists and cacheable query results. Hibernate keeps them
+ * consistent with its own writes (bulk JPQL and native deletes evict the affected regions); writes
+ * from other nodes or outside Hibernate are picked up once entries are {@code entity-cache.ttl-seconds}
+ * old. Every region must be created here, a missing one fails startup. Hit and miss counts per region
+ * are exported with the other Hibernate statistics as {@code hibernate.second.level.cache.requests}.
+ */
+@Configuration
+public class EntityCacheConfig {
+    // Regions named in the entities' @Cache annotations
+    private static final String[] ENTITY_REGIONS = {
+            "trainingPlanTemplates", "trainingPlanTemplates.exercises", "trainingPlans", "trainingPlans.exercises"};
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${entity-cache.max-size:10000}") long maxSize,
+                                           @Value("${entity-cache.ttl-seconds:300}") long ttlSeconds) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        OptionalLong ttlNanos = OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds));
+        for (String region : ENTITY_REGIONS) {
+            cacheManager.createCache(region, region(OptionalLong.of(maxSize), ttlNanos));
+        }
+        // Results of queries marked cacheable, as lists of ids resolved through the entity regions
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.of(maxSize), ttlNanos));
+        // One entry per table; evicting one would let a stale query result be served as current
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.empty(), OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(OptionalLong maxSize, OptionalLong expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxSize);
+        configuration.setExpireAfterWrite(expireAfterWriteNanos);
+        return configuration;
+    }
+}
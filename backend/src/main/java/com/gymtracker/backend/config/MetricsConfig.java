@@ -0,0 +1,73 @@
+package com.gymtracker.backend.config;
+
+import com.gymtracker.backend.service.DataVersionService;
+import com.gymtracker.backend.service.RecommendationService;
+import com.gymtracker.backend.service.TrainingStateService;
+import com.gymtracker.backend.service.UserCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Application metrics on top of Spring Boot's defaults (HTTP request timers, repository invocation
+ * timers, JVM and pool metrics): cache hit ratios, repository row counts, SQL statements per request
+ * and {@code @Timed} support for scheduled jobs. Everything is scraped from {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder userCacheMetrics(UserCache userCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, userCache.getCache(), "users");
+    }
+
+    @Bean
+    public MeterBinder recommendationCacheMetrics(RecommendationService recommendationService) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, recommendationService.getCache(), "recommendations");
+    }
+
+    @Bean
+    public MeterBinder trainingStateMetrics(TrainingStateService trainingStateService) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, trainingStateService.getCache(), "trainingState");
+    }
+
+    @Bean
+    public MeterBinder dataVersionMetrics(DataVersionService dataVersionService) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, dataVersionService.getCache(), "dataVersions");
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer(QueryCountGuard queryCountGuard) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCountGuard);
+    }
+
+    // Static so it is registered before the repository factory beans it customizes
+    @Bean
+    public static BeanPostProcessor repositoryRowCounts(ObjectProvider<MeterRegistry> registry) {
+        SingletonSupplier<MeterRegistry> lazyRegistry = SingletonSupplier.of(registry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxy, info) -> proxy.addAdvice(
+                                    new RepositoryRowCountInterceptor(lazyRegistry, info.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.gymtracker.backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements Hibernate issues while an API request is handled, including lazy loads
+ * during JSON serialization, and records them per endpoint as the {@code http.server.requests.statements}
+ * distribution summary. A request over {@code query-budget.max-statements} is logged as a warning: the
+ * list endpoints need a fixed number of statements whatever the number of rows, so growth with the
+ * data points to an association loaded row by row. Second-level cache hits issue no statement;
+ * JdbcTemplate statements and the body of streamed responses are not counted.
+ */
+@Component
+public class QueryCountGuard implements StatementInspector, AsyncHandlerInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(QueryCountGuard.class);
+    // Request attribute holding the statement count once the request completes
+    public static final String STATEMENTS_ATTRIBUTE = QueryCountGuard.class.getName() + ".statements";
+
+    private final ThreadLocal<int[]> statements = new ThreadLocal<>();
+    private final ObjectProvider<MeterRegistry> registry;
+    private final int maxStatements;
+
+    // The registry is resolved per request since this is created with the EntityManagerFactory
+    public QueryCountGuard(ObjectProvider<MeterRegistry> registry,
+                           @Value("${query-budget.max-statements:20}") int maxStatements) {
+        this.registry = registry;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = statements.get();
+        if (count != null) count[0]++;
+        return sql;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statements.set(new int[1]);
+        return true;
+    }
+
+    // The rest of an async request runs on another thread
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statements.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int[] count = statements.get();
+        statements.remove();
+        if (count == null) return;
+        request.setAttribute(STATEMENTS_ATTRIBUTE, count[0]);
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (uri == null) return;
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("SQL statements issued through Hibernate per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri.toString())
+                .register(registry.getObject())
+                .record(count[0]);
+        if (count[0] > maxStatements) {
+            log.warn("{} {} issued {} SQL statements, over the budget of {}; look for associations loaded per row",
+                    request.getMethod(), uri, count[0], maxStatements);
+        }
+    }
+}
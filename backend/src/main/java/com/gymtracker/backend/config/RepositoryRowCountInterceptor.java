@@ -0,0 +1,60 @@
+package com.gymtracker.backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Records how many rows each repository method returned (or, for modifying queries, affected) as the
+ * {@code repository.rows} distribution summary, next to Spring Boot's per-method
+ * {@code spring.data.repository.invocations} timers. Streams and scalar results are not counted.
+ */
+class RepositoryRowCountInterceptor implements MethodInterceptor {
+    private final Supplier<MeterRegistry> registry;
+    private final String repository;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    // The registry is resolved on first use since repositories are created before the metrics beans
+    RepositoryRowCountInterceptor(Supplier<MeterRegistry> registry, Class<?> repositoryInterface) {
+        this.registry = registry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (invocation.getMethod().getDeclaringClass() == Object.class) return result;
+        long rows = rows(result, invocation.getMethod().getReturnType());
+        if (rows >= 0) {
+            summaries.computeIfAbsent(invocation.getMethod(), method -> DistributionSummary.builder("repository.rows")
+                    .description("Rows returned or affected per repository call")
+                    .tag("repository", repository)
+                    .tag("method", method.getName())
+                    .register(registry.get())).record(rows);
+        }
+        return result;
+    }
+
+    private static long rows(Object result, Class<?> returnType) {
+        if (result instanceof Collection) return ((Collection<?>) result).size();
+        if (result instanceof Slice) return ((Slice<?>) result).getNumberOfElements();
+        if (result instanceof Optional) return ((Optional<?>) result).isPresent() ? 1 : 0;
+        // @Modifying queries report the affected row count
+        if (returnType == int.class || returnType == Integer.class) return result == null ? 0 : ((Number) result).longValue();
+        if (result instanceof Iterable) {
+            long count = 0;
+            for (Object ignored : (Iterable<?>) result) count++;
+            return count;
+        }
+        return -1;
+    }
+}
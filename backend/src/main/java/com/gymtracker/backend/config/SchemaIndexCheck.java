@@ -0,0 +1,93 @@
+package com.gymtracker.backend.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Warns at startup about every index declared in an entity's {@code @Table(indexes = ...)} that the
+ * database does not have. Indexes are created by the Flyway migrations, not by Hibernate, so a
+ * missing one means a migration was skipped or an index was dropped by hand, and the finders that
+ * rely on it fall back to full scans. Any index whose leading columns match counts, whatever its name.
+ */
+@Component
+public class SchemaIndexCheck {
+    private static final Logger log = LoggerFactory.getLogger(SchemaIndexCheck.class);
+
+    @Autowired private DataSource dataSource;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        int expected = 0;
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (EntityPersister persister : entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getMetamodel().entityPersisters().values()) {
+                Class<?> entity = persister.getMappedClass();
+                Table table = entity.getAnnotation(Table.class);
+                if (table == null || table.indexes().length == 0 || !(persister instanceof AbstractEntityPersister)) continue;
+                String tableName = ((AbstractEntityPersister) persister).getTableName();
+                List<List<String>> existing = indexColumns(metaData, tableName);
+                for (Index index : table.indexes()) {
+                    expected++;
+                    List<String> columns = new ArrayList<>();
+                    for (String column : index.columnList().split(",")) {
+                        columns.add(column.trim().toLowerCase(Locale.ROOT));
+                    }
+                    if (existing.stream().noneMatch(c -> c.size() >= columns.size() && c.subList(0, columns.size()).equals(columns))) {
+                        missing.add(index.name() + " on " + tableName + " (" + index.columnList() + ")");
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Could not check database indexes: {}", e.toString());
+            return;
+        }
+        if (missing.isEmpty()) {
+            log.info("All {} expected database indexes are present", expected);
+        } else {
+            for (String index : missing) {
+                log.warn("Missing database index {}; queries filtering on these columns will scan the table", index);
+            }
+        }
+    }
+
+    // Column lists (lower case, in key order) of every index on the table, including unique constraints
+    private static List<List<String>> indexColumns(DatabaseMetaData metaData, String table) throws SQLException {
+        String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT)
+                : metaData.storesLowerCaseIdentifiers() ? table.toLowerCase(Locale.ROOT) : table;
+        Map<String, SortedMap<Short, String>> indexes = new HashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(null, null, name, false, true)) {
+            while (rs.next()) {
+                String index = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (index == null || column == null) continue;
+                indexes.computeIfAbsent(index, i -> new TreeMap<>())
+                        .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        }
+        List<List<String>> result = new ArrayList<>();
+        for (SortedMap<Short, String> columns : indexes.values()) {
+            result.add(new ArrayList<>(columns.values()));
+        }
+        return result;
+    }
+}
@@ -28,6 +28,8 @@ public class SecurityConfig {
             .csrf().disable()
             .authorizeRequests()
             .antMatchers("/api/auth/**").permitAll()
+            // Scrape targets, served only on management.server.port (the public port answers 404)
+            .antMatchers("/actuator/health", "/actuator/prometheus").permitAll()
             .anyRequest().authenticated()
             .and()
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
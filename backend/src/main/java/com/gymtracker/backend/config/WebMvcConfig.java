@@ -0,0 +1,37 @@
+package com.gymtracker.backend.config;
+
+import com.gymtracker.backend.security.CurrentUserArgumentResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    @Autowired
+    private CurrentUserArgumentResolver currentUserArgumentResolver;
+
+    @Autowired
+    private DataVersionEtagInterceptor dataVersionEtagInterceptor;
+
+    @Autowired
+    private QueryCountGuard queryCountGuard;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First, so statements of the interceptors after it are counted too
+        registry.addInterceptor(queryCountGuard).addPathPatterns("/api/**");
+        // Endpoints whose responses depend only on the user's own data (templates are shared)
+        registry.addInterceptor(dataVersionEtagInterceptor)
+                .addPathPatterns("/api/training/**", "/api/analytics/**", "/api/ai-recommendations/**")
+                .excludePathPatterns("/api/training/templates/**");
+    }
+}
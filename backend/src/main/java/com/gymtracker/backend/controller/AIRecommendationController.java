@@ -6,13 +6,21 @@ import com.gymtracker.backend.model.TrainingPlan;
 import com.gymtracker.backend.model.PlannedSession;
 import com.gymtracker.backend.repository.TrainingSessionRepository;
 import com.gymtracker.backend.repository.TrainingPlanRepository;
-import com.gymtracker.backend.repository.UserRepository;
 import com.gymtracker.backend.repository.PlannedSessionRepository;
-import com.gymtracker.backend.security.JwtUtil;
+import com.gymtracker.backend.security.CurrentUser;
+import com.gymtracker.backend.service.MuscleGroupClassifier;
+import com.gymtracker.backend.service.ProgramSchedulingService;
+import com.gymtracker.backend.service.RecommendationService;
+import com.gymtracker.backend.service.ReminderTimes;
+import com.gymtracker.backend.service.TrainingDataChangedEvent;
+import com.gymtracker.backend.service.TrainingStateService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -22,46 +30,32 @@ import java.util.stream.Collectors;
 public class AIRecommendationController {
     @Autowired private TrainingSessionRepository sessionRepo;
     @Autowired private TrainingPlanRepository planRepo;
-    @Autowired private UserRepository userRepo;
     @Autowired private PlannedSessionRepository plannedRepo;
-    @Autowired private JwtUtil jwtUtil;
-
-    private User getUserFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        String username = jwtUtil.extractUsername(token);
-        return userRepo.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    @Autowired private MuscleGroupClassifier muscleGroupClassifier;
+    @Autowired private ReminderTimes reminderTimes;
+    @Autowired private RecommendationService recommendationService;
+    @Autowired private TrainingStateService trainingStateService;
+    @Autowired private ProgramSchedulingService programSchedulingService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
 
     @PostMapping("/workout-suggestions")
-    public Map<String, Object> getWorkoutSuggestions(@RequestHeader("Authorization") String authHeader,
+    public Map<String, Object> getWorkoutSuggestions(@CurrentUser User user,
                                                      @RequestBody Map<String, Object> preferences) {
-        User user = getUserFromToken(authHeader);
-        
         // Get user preferences
-        int availableTime = (Integer) preferences.getOrDefault("availableTime", 60); // minutes
-        String equipment = (String) preferences.getOrDefault("equipment", "full_gym");
-        String fitnessGoal = (String) preferences.getOrDefault("fitnessGoal", "general_fitness");
-        
-        // Analyze recent training history
-        List<TrainingSession> recentSessions = sessionRepo.findByUserAndDateAfterOrderByDateDesc(
-            user, LocalDate.now().minusDays(14));
-        
-        Map<String, Object> result = new HashMap<>();
-        
-        // Generate personalized recommendations
-        List<Map<String, Object>> recommendations = generateRecommendations(
-            user, recentSessions, availableTime, equipment, fitnessGoal);
-        
-        result.put("recommendations", recommendations);
-        result.put("basedOnData", getAnalysisSummary(recentSessions));
-        result.put("nextSuggestedDate", getNextSuggestedTrainingDate(recentSessions));
-        
-        return result;
+        int availableTime = preferences.get("availableTime") != null
+            ? Integer.parseInt(preferences.get("availableTime").toString())
+            : RecommendationService.DEFAULT_AVAILABLE_TIME; // minutes
+        String equipment = preferences.get("equipment") != null
+            ? preferences.get("equipment").toString() : RecommendationService.DEFAULT_EQUIPMENT;
+        String fitnessGoal = preferences.get("fitnessGoal") != null
+            ? preferences.get("fitnessGoal").toString() : RecommendationService.DEFAULT_FITNESS_GOAL;
+
+        // Cached per user, preferences and day; invalidated when the user's training data changes
+        return recommendationService.workoutSuggestions(user, availableTime, equipment, fitnessGoal);
     }
 
     @GetMapping("/quick-suggestion")
-    public Map<String, Object> getQuickSuggestion(@RequestHeader("Authorization") String authHeader) {
-        User user = getUserFromToken(authHeader);
+    public Map<String, Object> getQuickSuggestion(@CurrentUser User user) {
         List<TrainingSession> recentSessions = sessionRepo.findByUserAndDateAfterOrderByDateDesc(
             user, LocalDate.now().minusDays(7));
         
@@ -74,7 +68,7 @@ public class AIRecommendationController {
         } else {
             // Analyze what muscle groups were trained recently
             Set<String> recentMuscleGroups = recentSessions.stream()
-                .map(s -> extractMuscleGroup(s.getNotes()))
+                .map(this::extractMuscleGroup)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
             
@@ -86,68 +80,15 @@ public class AIRecommendationController {
         return result;
     }
 
+    // Served from the in-memory training state, no database access once the user's state is loaded
     @GetMapping("/recovery-status")
-    public Map<String, Object> getRecoveryStatus(@RequestHeader("Authorization") String authHeader) {
-        User user = getUserFromToken(authHeader);
-        List<TrainingSession> recentSessions = sessionRepo.findByUserAndDateAfterOrderByDateDesc(
-            user, LocalDate.now().minusDays(7));
-        
-        Map<String, Object> result = new HashMap<>();
-        
-        if (recentSessions.isEmpty()) {
-            result.put("status", "rested");
-            result.put("readiness", 100);
-            result.put("recommendation", "You're well-rested and ready for an intense workout!");
-            return result;
-        }
-        
-        // Calculate days since last workout
-        LocalDate lastWorkout = recentSessions.get(0).getDate();
-        long daysSinceLastWorkout = ChronoUnit.DAYS.between(lastWorkout, LocalDate.now());
-        
-        // Calculate training frequency in last week
-        long sessionsThisWeek = recentSessions.stream()
-            .filter(s -> ChronoUnit.DAYS.between(s.getDate(), LocalDate.now()) <= 7)
-            .count();
-        
-        // Simple recovery algorithm
-        int readiness;
-        String status;
-        String recommendation;
-        
-        if (daysSinceLastWorkout >= 3) {
-            readiness = 100;
-            status = "fully_recovered";
-            recommendation = "You're fully recovered! Perfect time for a challenging workout.";
-        } else if (daysSinceLastWorkout >= 2) {
-            readiness = 85;
-            status = "recovered";
-            recommendation = "Good recovery status. You can train at high intensity.";
-        } else if (daysSinceLastWorkout == 1) {
-            readiness = sessionsThisWeek >= 4 ? 60 : 75;
-            status = sessionsThisWeek >= 4 ? "moderate_fatigue" : "slightly_fatigued";
-            recommendation = sessionsThisWeek >= 4 ? 
-                "Consider a light session or active recovery." :
-                "You can train, but consider reducing intensity slightly.";
-        } else {
-            readiness = 45;
-            status = "high_fatigue";
-            recommendation = "High training frequency detected. Consider rest or very light activity.";
-        }
-        
-        result.put("status", status);
-        result.put("readiness", readiness);
-        result.put("recommendation", recommendation);
-        result.put("daysSinceLastWorkout", daysSinceLastWorkout);
-        result.put("sessionsThisWeek", sessionsThisWeek);
-        
-        return result;
+    public Map<String, Object> getRecoveryStatus(@CurrentUser User user) {
+        return trainingStateService.getRecoveryStatus(user);
     }
 
     @PostMapping("/schedule-recommendation")
-    public Map<String, Object> scheduleRecommendation(@RequestHeader("Authorization") String authHeader,
+    public Map<String, Object> scheduleRecommendation(@CurrentUser User user,
                                                       @RequestBody Map<String, Object> body) {
-        User user = getUserFromToken(authHeader);
         Map<String, Object> result = new HashMap<>();
         
         try {
@@ -172,28 +113,20 @@ public class AIRecommendationController {
             plannedSession.setUser(user);
             plannedSession.setDate(plannedDate);
             
-            // Format notes with recommendation details
-            StringBuilder notes = new StringBuilder();
-            notes.append("AI Recommendation: ").append(title).append("\n");
-            notes.append("Description: ").append(description).append("\n");
-            
-            if (type != null) {
-                notes.append("Type: ").append(type).append("\n");
-            }
-            if (targetMuscle != null) {
-                notes.append("Target: [").append(targetMuscle).append("]\n");
-            }
-            if (intensity != null) {
-                notes.append("Intensity: ").append(intensity).append("\n");
-            }
-            if (estimatedTime != null) {
-                notes.append("Estimated Time: ").append(estimatedTime).append(" minutes\n");
-            }
-            
-            plannedSession.setNotes(notes.toString().trim());
+            plannedSession.setNotes(description);
+            plannedSession.setTitle(title);
+            plannedSession.setType(type);
+            plannedSession.setTargetMuscle(targetMuscle);
+            plannedSession.setIntensity(intensity);
+            plannedSession.setEstimatedTime(estimatedTime);
+            // An explicit target wins over keywords in the title or description
+            plannedSession.setMuscleGroup(muscleGroupClassifier.classify(targetMuscle != null
+                ? "[" + targetMuscle + "]" : title + " " + (description != null ? description : "")));
+            plannedSession.setRemindAt(reminderTimes.remindAt(plannedDate, user));
             
             // Save the planned session
             PlannedSession savedSession = plannedRepo.save(plannedSession);
+            eventPublisher.publishEvent(new TrainingDataChangedEvent(user.getId(), false));
             
             result.put("success", true);
             result.put("message", "Recommendation scheduled successfully");
@@ -206,154 +139,29 @@ public class AIRecommendationController {
         return result;
     }
 
-    private List<Map<String, Object>> generateRecommendations(User user, List<TrainingSession> recentSessions,
-                                                              int availableTime, String equipment, String fitnessGoal) {
-        List<Map<String, Object>> recommendations = new ArrayList<>();
-        
-        // Analyze training patterns
-        Map<String, Integer> muscleGroupFrequency = analyzeMuscleGroupFrequency(recentSessions);
-        long daysSinceLastWorkout = recentSessions.isEmpty() ? 7 : 
-            ChronoUnit.DAYS.between(recentSessions.get(0).getDate(), LocalDate.now());
-        
-        // Recommendation 1: Based on muscle group balance
-        String undertrainedMuscle = findUndertrainedMuscleGroup(muscleGroupFrequency);
-        if (undertrainedMuscle != null) {
-            Map<String, Object> rec1 = new HashMap<>();
-            rec1.put("title", "Balance Your Training");
-            rec1.put("description", String.format("Focus on %s training to improve muscle balance", undertrainedMuscle));
-            rec1.put("type", "muscle_balance");
-            rec1.put("targetMuscle", undertrainedMuscle);
-            rec1.put("priority", "high");
-            rec1.put("estimatedTime", Math.min(availableTime, 45));
-            recommendations.add(rec1);
-        }
-        
-        // Recommendation 2: Based on recovery status
-        if (daysSinceLastWorkout >= 3) {
-            Map<String, Object> rec2 = new HashMap<>();
-            rec2.put("title", "High-Intensity Session");
-            rec2.put("description", "You're well-rested! Perfect time for a challenging compound movement session");
-            rec2.put("type", "intensity");
-            rec2.put("intensity", "high");
-            rec2.put("priority", "medium");
-            rec2.put("estimatedTime", availableTime);
-            recommendations.add(rec2);
-        } else if (daysSinceLastWorkout <= 1) {
-            Map<String, Object> rec2 = new HashMap<>();
-            rec2.put("title", "Active Recovery");
-            rec2.put("description", "Light cardio and stretching to promote recovery");
-            rec2.put("type", "recovery");
-            rec2.put("intensity", "low");
-            rec2.put("priority", "medium");
-            rec2.put("estimatedTime", Math.min(availableTime, 30));
-            recommendations.add(rec2);
-        }
-        
-        // Recommendation 3: Based on fitness goal
-        Map<String, Object> rec3 = createGoalBasedRecommendation(fitnessGoal, availableTime, equipment);
-        if (rec3 != null) {
-            recommendations.add(rec3);
-        }
-        
-        // Recommendation 4: Quick option for time constraints
-        if (availableTime <= 30) {
-            Map<String, Object> rec4 = new HashMap<>();
-            rec4.put("title", "Quick HIIT Session");
-            rec4.put("description", "High-intensity interval training for maximum efficiency");
-            rec4.put("type", "time_efficient");
-            rec4.put("intensity", "high");
-            rec4.put("priority", "high");
-            rec4.put("estimatedTime", availableTime);
-            rec4.put("exercises", Arrays.asList("Burpees", "Mountain Climbers", "Jump Squats", "Push-ups"));
-            recommendations.add(rec4);
-        }
-        
-        return recommendations.stream()
-            .sorted((a, b) -> {
-                String priorityA = (String) a.get("priority");
-                String priorityB = (String) b.get("priority");
-                return getPriorityValue(priorityB) - getPriorityValue(priorityA);
-            })
-            .limit(3)
-            .collect(Collectors.toList());
-    }
-
-    private Map<String, Integer> analyzeMuscleGroupFrequency(List<TrainingSession> sessions) {
-        Map<String, Integer> frequency = new HashMap<>();
-        
-        sessions.forEach(session -> {
-            String muscleGroup = extractMuscleGroup(session.getNotes());
-            if (muscleGroup != null) {
-                frequency.merge(muscleGroup, 1, Integer::sum);
-            }
-        });
-        
-        return frequency;
-    }
-
-    private String findUndertrainedMuscleGroup(Map<String, Integer> frequency) {
-        if (frequency.isEmpty()) return "chest"; // Default suggestion
-        
-        String[] majorMuscleGroups = {"chest", "back", "legs", "shoulders", "arms"};
-        String leastTrained = null;
-        int minCount = Integer.MAX_VALUE;
-        
-        for (String muscle : majorMuscleGroups) {
-            int count = frequency.getOrDefault(muscle, 0);
-            if (count < minCount) {
-                minCount = count;
-                leastTrained = muscle;
-            }
-        }
-        
-        return leastTrained;
-    }
-
-    private Map<String, Object> createGoalBasedRecommendation(String goal, int availableTime, String equipment) {
-        Map<String, Object> rec = new HashMap<>();
-        
-        switch (goal.toLowerCase()) {
-            case "strength":
-                rec.put("title", "Strength Building Session");
-                rec.put("description", "Focus on compound movements with heavy weights and low reps");
-                rec.put("type", "strength");
-                rec.put("intensity", "high");
-                rec.put("priority", "medium");
-                rec.put("estimatedTime", Math.max(45, availableTime));
-                rec.put("exercises", Arrays.asList("Deadlifts", "Squats", "Bench Press", "Overhead Press"));
-                break;
-            
-            case "muscle_building":
-                rec.put("title", "Hypertrophy Training");
-                rec.put("description", "Moderate weights, higher volume for muscle growth");
-                rec.put("type", "hypertrophy");
-                rec.put("intensity", "medium-high");
-                rec.put("priority", "medium");
-                rec.put("estimatedTime", availableTime);
-                rec.put("exercises", Arrays.asList("Incline Press", "Rows", "Leg Press", "Lateral Raises"));
-                break;
-            
-            case "endurance":
-                rec.put("title", "Endurance Circuit");
-                rec.put("description", "High rep, low weight circuit training");
-                rec.put("type", "endurance");
-                rec.put("intensity", "medium");
-                rec.put("priority", "medium");
-                rec.put("estimatedTime", availableTime);
-                rec.put("exercises", Arrays.asList("Bodyweight Squats", "Push-ups", "Lunges", "Planks"));
-                break;
-            
-            default:
-                rec.put("title", "General Fitness");
-                rec.put("description", "Balanced workout combining strength and cardio");
-                rec.put("type", "general");
-                rec.put("intensity", "medium");
-                rec.put("priority", "low");
-                rec.put("estimatedTime", availableTime);
-                break;
+    // Generates and schedules a whole multi-week program (default 12 weeks, 4 sessions per week)
+    @PostMapping("/schedule-program")
+    public ResponseEntity<?> scheduleProgram(@CurrentUser User user, @RequestBody Map<String, Object> body) {
+        try {
+            int weeks = body.get("weeks") != null ? Integer.parseInt(body.get("weeks").toString()) : 12;
+            int sessionsPerWeek = body.get("sessionsPerWeek") != null
+                ? Integer.parseInt(body.get("sessionsPerWeek").toString()) : 4;
+            LocalDate startDate = body.get("startDate") != null ? LocalDate.parse(body.get("startDate").toString()) : null;
+            int availableTime = body.get("availableTime") != null
+                ? Integer.parseInt(body.get("availableTime").toString())
+                : RecommendationService.DEFAULT_AVAILABLE_TIME;
+            String equipment = body.get("equipment") != null
+                ? body.get("equipment").toString() : RecommendationService.DEFAULT_EQUIPMENT;
+            String fitnessGoal = body.get("fitnessGoal") != null
+                ? body.get("fitnessGoal").toString() : RecommendationService.DEFAULT_FITNESS_GOAL;
+            Long planId = body.get("planId") != null ? Long.valueOf(body.get("planId").toString()) : null;
+            return ResponseEntity.ok(programSchedulingService.scheduleProgram(
+                user, weeks, sessionsPerWeek, startDate, availableTime, equipment, fitnessGoal, planId));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Invalid startDate: " + e.getParsedString()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
         }
-        
-        return rec;
     }
 
     private String generateQuickSuggestion(Set<String> recentMuscleGroups, List<TrainingSession> recentSessions) {
@@ -378,69 +186,11 @@ public class AIRecommendationController {
         }
     }
 
-    private Map<String, Object> getAnalysisSummary(List<TrainingSession> recentSessions) {
-        Map<String, Object> summary = new HashMap<>();
-        
-        summary.put("totalSessions", recentSessions.size());
-        summary.put("averageFrequency", recentSessions.size() / 2.0); // per week
-        
-        if (!recentSessions.isEmpty()) {
-            long daysSinceLastWorkout = ChronoUnit.DAYS.between(
-                recentSessions.get(0).getDate(), LocalDate.now());
-            summary.put("daysSinceLastWorkout", daysSinceLastWorkout);
-            
-            Map<String, Integer> muscleGroups = analyzeMuscleGroupFrequency(recentSessions);
-            summary.put("trainedMuscleGroups", muscleGroups.keySet());
-        }
-        
-        return summary;
-    }
-
-    private String getNextSuggestedTrainingDate(List<TrainingSession> recentSessions) {
-        if (recentSessions.isEmpty()) {
-            return LocalDate.now().toString();
-        }
-        
-        LocalDate lastWorkout = recentSessions.get(0).getDate();
-        long daysSince = ChronoUnit.DAYS.between(lastWorkout, LocalDate.now());
-        
-        if (daysSince >= 2) {
-            return LocalDate.now().toString();
-        } else {
-            return lastWorkout.plusDays(2).toString();
-        }
-    }
-
-    private String extractMuscleGroup(String notes) {
-        if (notes == null) return null;
-        
-        // Extract muscle group from [muscleGroup] format
-        if (notes.contains("[") && notes.contains("]")) {
-            int start = notes.indexOf("[") + 1;
-            int end = notes.indexOf("]");
-            if (end > start) {
-                return notes.substring(start, end).toLowerCase();
-            }
-        }
-        
-        // Fallback to keyword detection
-        String[] muscleGroups = {"chest", "back", "legs", "shoulders", "arms", "biceps", "triceps", "abs"};
-        String lowerNotes = notes.toLowerCase();
-        for (String muscle : muscleGroups) {
-            if (lowerNotes.contains(muscle)) {
-                return muscle;
-            }
-        }
-        
-        return null;
-    }
-
-    private int getPriorityValue(String priority) {
-        switch (priority.toLowerCase()) {
-            case "high": return 3;
-            case "medium": return 2;
-            case "low": return 1;
-            default: return 0;
-        }
+    // Stored classification, falling back to the notes for rows the backfill has not reached yet
+    private String extractMuscleGroup(TrainingSession session) {
+        String muscleGroup = session.getMuscleGroup() != null
+            ? session.getMuscleGroup()
+            : muscleGroupClassifier.classify(session.getNotes());
+        return MuscleGroupClassifier.OTHER.equals(muscleGroup) ? null : muscleGroup;
     }
 }
@@ -1,6 +1,7 @@
 package com.gymtracker.backend.controller;
 
 import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.security.CurrentUser;
 import com.gymtracker.backend.security.JwtUtil;
 import com.gymtracker.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,26 +65,28 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getAccountDetails(@RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        String username = jwtUtil.extractUsername(token);
-        return userService.getUserDetails(username)
-                .<ResponseEntity<?>>map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.status(404).body(Collections.singletonMap("error", "User not found")));
+    public ResponseEntity<?> getAccountDetails(@CurrentUser(required = false) User user) {
+        if (user == null) {
+            return ResponseEntity.status(404).body(Collections.singletonMap("error", "User not found"));
+        }
+        return ResponseEntity.ok(user);
     }
 
     @PutMapping("/me")
-    public ResponseEntity<?> updateAccountDetails(@RequestHeader("Authorization") String authHeader, @RequestBody Map<String, String> details) {
-        String token = authHeader.replace("Bearer ", "");
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> updateAccountDetails(@CurrentUser(required = false) User user, @RequestBody Map<String, String> details) {
+        if (user == null) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "User not found"));
+        }
+        String username = user.getUsername();
         Integer height = details.get("height") != null ? Integer.valueOf(details.get("height")) : null;
         Integer weight = details.get("weight") != null ? Integer.valueOf(details.get("weight")) : null;
         String gender = details.get("gender");
         Integer age = details.get("age") != null ? Integer.valueOf(details.get("age")) : null;
         Integer goalWeight = details.get("goalWeight") != null ? Integer.valueOf(details.get("goalWeight")) : null;
         String email = details.get("email");
+        String timezone = details.get("timezone");
         try {
-            User updated = userService.updateUserDetails(username, height, weight, gender, age, goalWeight, email);
+            User updated = userService.updateUserDetails(username, height, weight, gender, age, goalWeight, email, timezone);
             return ResponseEntity.ok(updated);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
@@ -5,9 +5,12 @@ import com.gymtracker.backend.model.TrainingPlan;
 import com.gymtracker.backend.model.User;
 import com.gymtracker.backend.repository.PlannedSessionRepository;
 import com.gymtracker.backend.repository.TrainingPlanRepository;
-import com.gymtracker.backend.repository.UserRepository;
-import com.gymtracker.backend.security.JwtUtil;
+import com.gymtracker.backend.security.CurrentUser;
+import com.gymtracker.backend.service.MuscleGroupClassifier;
+import com.gymtracker.backend.service.ReminderTimes;
+import com.gymtracker.backend.service.TrainingDataChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,24 +25,17 @@ import java.util.Optional;
 public class PlannedSessionController {
     @Autowired private PlannedSessionRepository plannedRepo;
     @Autowired private TrainingPlanRepository planRepo;
-    @Autowired private UserRepository userRepo;
-    @Autowired private JwtUtil jwtUtil;
-
-    private User getUserFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        String username = jwtUtil.extractUsername(token);
-        return userRepo.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    @Autowired private MuscleGroupClassifier muscleGroupClassifier;
+    @Autowired private ReminderTimes reminderTimes;
+    @Autowired private ApplicationEventPublisher eventPublisher;
 
     @GetMapping
-    public List<PlannedSession> getPlanned(@RequestHeader("Authorization") String authHeader) {
-        User user = getUserFromToken(authHeader);
+    public List<PlannedSession> getPlanned(@CurrentUser User user) {
         return plannedRepo.findByUserOrderByDateAsc(user);
     }
 
     @PostMapping
-    public PlannedSession addPlanned(@RequestHeader("Authorization") String authHeader, @RequestBody Map<String, Object> body) {
-        User user = getUserFromToken(authHeader);
+    public PlannedSession addPlanned(@CurrentUser User user, @RequestBody Map<String, Object> body) {
         PlannedSession session = new PlannedSession();
         session.setUser(user);
         if (body.get("plan") != null) {
@@ -51,28 +47,38 @@ public class PlannedSessionController {
         }
         session.setDate(LocalDate.parse((String) body.get("date")));
         session.setNotes((String) body.get("notes"));
-        return plannedRepo.save(session);
-    }    @DeleteMapping("/{id}")
-    public ResponseEntity<?> deletePlanned(@RequestHeader("Authorization") String authHeader, @PathVariable Long id) {
-        User user = getUserFromToken(authHeader);
+        session.setMuscleGroup(muscleGroupClassifier.classify(session.getNotes()));
+        session.setRemindAt(reminderTimes.remindAt(session.getDate(), user));
+        PlannedSession saved = plannedRepo.save(session);
+        dataChanged(user);
+        return saved;
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deletePlanned(@CurrentUser User user, @PathVariable Long id) {
         Optional<PlannedSession> session = plannedRepo.findById(id);
         if (session.isPresent() && session.get().getUser().getId().equals(user.getId())) {
             plannedRepo.deleteById(id);
+            dataChanged(user);
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.status(403).body("Not allowed");
     }
 
     @PutMapping("/{id}/complete")
-    public ResponseEntity<PlannedSession> markAsCompleted(@RequestHeader("Authorization") String authHeader, @PathVariable Long id) {
-        User user = getUserFromToken(authHeader);
+    public ResponseEntity<PlannedSession> markAsCompleted(@CurrentUser User user, @PathVariable Long id) {
         Optional<PlannedSession> sessionOpt = plannedRepo.findById(id);
         if (sessionOpt.isPresent() && sessionOpt.get().getUser().getId().equals(user.getId())) {
             PlannedSession session = sessionOpt.get();
             session.setCompleted(true);
             PlannedSession savedSession = plannedRepo.save(session);
+            dataChanged(user);
             return ResponseEntity.ok(savedSession);
         }
         return ResponseEntity.status(403).build();
     }
+
+    private void dataChanged(User user) {
+        eventPublisher.publishEvent(new TrainingDataChangedEvent(user.getId(), false));
+    }
 }
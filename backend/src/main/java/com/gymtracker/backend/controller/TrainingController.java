@@ -2,11 +2,27 @@ package com.gymtracker.backend.controller;
 
 import com.gymtracker.backend.model.*;
 import com.gymtracker.backend.repository.*;
-import com.gymtracker.backend.security.JwtUtil;
+import com.gymtracker.backend.security.CurrentUser;
+import com.gymtracker.backend.service.MuscleGroupClassifier;
+import com.gymtracker.backend.service.SessionHistoryService;
+import com.gymtracker.backend.service.SessionImportService;
+import com.gymtracker.backend.service.TrainingDataChangedEvent;
+import com.gymtracker.backend.service.TrainingDataDeletionService;
+import com.gymtracker.backend.service.TrainingSessionRecordedEvent;
+import com.gymtracker.backend.service.VolumeRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.time.LocalDate;
 import java.util.*;
@@ -16,57 +32,74 @@ import java.util.*;
 public class TrainingController {
     @Autowired private TrainingPlanRepository planRepo;
     @Autowired private TrainingSessionRepository sessionRepo;
-    @Autowired private UserRepository userRepo;
-    @Autowired private JwtUtil jwtUtil;
-
-    // DEBUG: Log token and username for all authenticated requests
-    private User getUserFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        System.out.println("[DEBUG] Received token: " + token);
-        String username = jwtUtil.extractUsername(token);
-        System.out.println("[DEBUG] Extracted username: " + username);
-        return userRepo.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    @Autowired private VolumeRollupService volumeRollupService;
+    @Autowired private MuscleGroupClassifier muscleGroupClassifier;
+    @Autowired private SessionHistoryService sessionHistoryService;
+    @Autowired private SessionImportService sessionImportService;
+    @Autowired private TrainingDataDeletionService deletionService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
 
     // Training Plans
     @GetMapping("/plans")
-    public List<TrainingPlan> getPlans(@RequestHeader("Authorization") String authHeader) {
-        User user = getUserFromToken(authHeader);
+    public List<TrainingPlan> getPlans(@CurrentUser User user) {
         return planRepo.findByUser(user);
     }
 
     @PostMapping("/plans")
-    public TrainingPlan addPlan(@RequestHeader("Authorization") String authHeader, @RequestBody Map<String, Object> body) {
-        User user = getUserFromToken(authHeader);
+    public TrainingPlan addPlan(@CurrentUser User user, @RequestBody Map<String, Object> body) {
         TrainingPlan plan = new TrainingPlan();
         plan.setUser(user);
         plan.setName((String) body.get("name"));
         plan.setDescription((String) body.get("description"));
         plan.setExercises((List<String>) body.getOrDefault("exercises", new ArrayList<>()));
-        return planRepo.save(plan);
+        TrainingPlan saved = planRepo.save(plan);
+        eventPublisher.publishEvent(new TrainingDataChangedEvent(user.getId(), false));
+        return saved;
     }
 
     @DeleteMapping("/plans/{id}")
-    public ResponseEntity<?> deletePlan(@RequestHeader("Authorization") String authHeader, @PathVariable Long id) {
-        User user = getUserFromToken(authHeader);
+    public ResponseEntity<?> deletePlan(@CurrentUser User user, @PathVariable Long id) {
         Optional<TrainingPlan> plan = planRepo.findById(id);
         if (plan.isPresent() && plan.get().getUser().getId().equals(user.getId())) {
-            planRepo.deleteById(id);
+            try {
+                deletionService.deletePlan(user, id);
+            } finally {
+                dataChanged(user);
+            }
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.status(403).body("Not allowed");
     }
 
     // Training Sessions
+    // Without a limit the whole history is returned as before; with one, keyset pages of (date, id)
     @GetMapping("/sessions")
-    public List<TrainingSession> getSessions(@RequestHeader("Authorization") String authHeader) {
-        User user = getUserFromToken(authHeader);
-        return sessionRepo.findByUserOrderByDateAsc(user);
+    public ResponseEntity<?> getSessions(@CurrentUser User user,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String after) {
+        if (limit == null) {
+            return ResponseEntity.ok(sessionRepo.findByUserOrderByDateAsc(user));
+        }
+        if (limit < 1 || limit > SessionHistoryService.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error",
+                    "limit must be between 1 and " + SessionHistoryService.MAX_PAGE_SIZE));
+        }
+        try {
+            return ResponseEntity.ok(sessionHistoryService.page(user, limit, after));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    // Full history as newline-delimited JSON, written while rows are read
+    @GetMapping(value = "/sessions/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamSessions(@CurrentUser User user) {
+        StreamingResponseBody body = out -> sessionHistoryService.streamNdjson(user, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
     }
 
     @PostMapping("/sessions")
-    public TrainingSession addSession(@RequestHeader("Authorization") String authHeader, @RequestBody Map<String, Object> body) {
-        User user = getUserFromToken(authHeader);
+    public TrainingSession addSession(@CurrentUser User user, @RequestBody Map<String, Object> body) {
         TrainingSession session = new TrainingSession();
         session.setUser(user);
         if (body.get("planId") != null) {
@@ -76,26 +109,56 @@ public class TrainingController {
         session.setDate(LocalDate.parse((String) body.get("date")));
         session.setWeight(body.get("weight") != null ? Integer.valueOf(body.get("weight").toString()) : null);
         session.setNotes((String) body.get("notes"));
-        return sessionRepo.save(session);
+        session.setMuscleGroup(muscleGroupClassifier.classify(session.getNotes()));
+        TrainingSession saved = volumeRollupService.saveSession(session);
+        eventPublisher.publishEvent(new TrainingSessionRecordedEvent(saved));
+        return saved;
+    }
+
+    // Bulk history upload: a JSON array of {date, weight, notes, planId} objects
+    @PostMapping(value = "/sessions/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importSessionsJson(@CurrentUser User user, InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(sessionImportService.importJson(user, body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        } finally {
+            // Chunks are committed as they are written, so even a failed import may have changed data
+            dataChanged(user);
+        }
+    }
+
+    // Same as above for CSV with a header row (date,weight,notes,planId)
+    @PostMapping(value = "/sessions/import", consumes = "text/csv")
+    public ResponseEntity<?> importSessionsCsv(@CurrentUser User user, InputStream body) throws IOException {
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            return ResponseEntity.ok(sessionImportService.importCsv(user, reader));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        } finally {
+            dataChanged(user);
+        }
     }
 
     // Clear all training session history for the user
     @DeleteMapping("/sessions")
-    public ResponseEntity<?> clearSessions(@RequestHeader("Authorization") String authHeader) {
-        User user = getUserFromToken(authHeader);
-        List<TrainingSession> sessions = sessionRepo.findByUserOrderByDateAsc(user);
-        sessionRepo.deleteAll(sessions);
+    public ResponseEntity<?> clearSessions(@CurrentUser User user) {
+        try {
+            deletionService.clearSessions(user);
+        } finally {
+            dataChanged(user);
+        }
         return ResponseEntity.ok().build();
     }
 
     // Progress (weight/BMI history)
     @GetMapping("/progress")
-    public List<Map<String, Object>> getProgress(@RequestHeader("Authorization") String authHeader) {
-        User user = getUserFromToken(authHeader);
-        List<TrainingSession> sessions = sessionRepo.findByUserOrderByDateAsc(user);
-        List<Map<String, Object>> progress = new ArrayList<>();
-        for (TrainingSession s : sessions) {
-            Map<String, Object> entry = new HashMap<>();
+    public List<Map<String, Object>> getProgress(@CurrentUser User user) {
+        List<DailyWeight> sessions = sessionRepo.findProgressByUser(user);
+        List<Map<String, Object>> progress = new ArrayList<>(sessions.size());
+        for (DailyWeight s : sessions) {
+            Map<String, Object> entry = new HashMap<>(4);
             entry.put("date", s.getDate());
             entry.put("weight", s.getWeight());
             if (user.getHeight() != null && s.getWeight() != null) {
@@ -109,24 +172,18 @@ public class TrainingController {
 
     // Personal Bests
     @GetMapping("/personal-bests")
-    public Map<String, Object> getPersonalBests(@RequestHeader("Authorization") String authHeader) {
-        User user = getUserFromToken(authHeader);
-        List<TrainingSession> sessions = sessionRepo.findByUserOrderByDateAsc(user);
-        Integer heaviestLift = null;
-        LocalDate heaviestDate = null;
-        String heaviestPlan = null;
-        for (TrainingSession s : sessions) {
-            if (s.getWeight() != null && (heaviestLift == null || s.getWeight() > heaviestLift)) {
-                heaviestLift = s.getWeight();
-                heaviestDate = s.getDate();
-                heaviestPlan = s.getPlan() != null ? s.getPlan().getName() : null;
-            }
-        }
+    public Map<String, Object> getPersonalBests(@CurrentUser User user) {
+        List<PersonalBest> bests = sessionRepo.findPersonalBests(user, PageRequest.of(0, 1));
+        PersonalBest heaviest = bests.isEmpty() ? null : bests.get(0);
         Map<String, Object> result = new HashMap<>();
-        result.put("heaviestLift", heaviestLift);
-        result.put("heaviestDate", heaviestDate);
-        result.put("heaviestPlan", heaviestPlan);
+        result.put("heaviestLift", heaviest != null ? heaviest.getWeight() : null);
+        result.put("heaviestDate", heaviest != null ? heaviest.getDate() : null);
+        result.put("heaviestPlan", heaviest != null ? heaviest.getPlanName() : null);
         // Add more personal bests here (e.g., fastest run) as needed
         return result;
     }
+
+    private void dataChanged(User user) {
+        eventPublisher.publishEvent(new TrainingDataChangedEvent(user.getId()));
+    }
 }
@@ -1,22 +1,56 @@
 package com.gymtracker.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_planned_session_user_muscle_group", columnList = "user_id, muscle_group"),
+        @Index(name = "idx_planned_session_remind_at", columnList = "remind_at"),
+        @Index(name = "idx_planned_session_user_date", columnList = "user_id, date")
+})
+// Same fetch plan as TrainingSession's list graph
+@NamedEntityGraph(name = PlannedSession.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode(value = "plan", subgraph = "plan")
+}, subgraphs = @NamedSubgraph(name = "plan", attributeNodes = @NamedAttributeNode("user")))
 public class PlannedSession {
+    public static final String LIST_GRAPH = "PlannedSession.list";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     private TrainingPlan plan;    private LocalDate date;
     private String notes;
     private boolean completed = false;
 
+    // Classified from notes at write time (see MuscleGroupClassifier)
+    @Column(name = "muscle_group", length = 64)
+    private String muscleGroup;
+
+    // UTC time the reminder is due: the user's local send time on the day before (see ReminderTimes)
+    @Column(name = "remind_at")
+    @JsonIgnore
+    private LocalDateTime remindAt;
+
+    // Structured recommendation fields, null for sessions planned by hand
+    private String title;
+    @Column(name = "session_type", length = 64)
+    private String type;
+    @Column(length = 64)
+    private String targetMuscle;
+    @Column(length = 32)
+    private String intensity;
+    private Integer estimatedTime;
+
     // getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -29,4 +63,18 @@ public class PlannedSession {
     public void setNotes(String notes) { this.notes = notes; }
     public boolean isCompleted() { return completed; }
     public void setCompleted(boolean completed) { this.completed = completed; }
+    public String getMuscleGroup() { return muscleGroup; }
+    public void setMuscleGroup(String muscleGroup) { this.muscleGroup = muscleGroup; }
+    public LocalDateTime getRemindAt() { return remindAt; }
+    public void setRemindAt(LocalDateTime remindAt) { this.remindAt = remindAt; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getTargetMuscle() { return targetMuscle; }
+    public void setTargetMuscle(String targetMuscle) { this.targetMuscle = targetMuscle; }
+    public String getIntensity() { return intensity; }
+    public void setIntensity(String intensity) { this.intensity = intensity; }
+    public Integer getEstimatedTime() { return estimatedTime; }
+    public void setEstimatedTime(Integer estimatedTime) { this.estimatedTime = estimatedTime; }
 }
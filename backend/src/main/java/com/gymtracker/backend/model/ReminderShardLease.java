@@ -0,0 +1,58 @@
+package com.gymtracker.backend.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Lease and progress of one reminder shard (users with {@code id % shardCount == shardId}).
+ * A node owns the shard while {@code leaseUntil} is in the future. Reminders due up to
+ * {@code processedUntil} (UTC) have been queued; while a run is in progress, {@code runUntil} is
+ * its upper bound and ({@code cursorRemindAt}, {@code lastPlannedSessionId}) the last queued row,
+ * so an interrupted run resumes where it stopped.
+ */
+@Entity
+@Table(name = "reminder_shard_lease")
+public class ReminderShardLease {
+    @Id
+    @Column(name = "shard_id")
+    private Integer shardId;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "processed_until")
+    private LocalDateTime processedUntil;
+
+    @Column(name = "run_until")
+    private LocalDateTime runUntil;
+
+    @Column(name = "cursor_remind_at")
+    private LocalDateTime cursorRemindAt;
+
+    @Column(name = "last_planned_session_id", nullable = false)
+    private long lastPlannedSessionId;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    // getters and setters
+    public Integer getShardId() { return shardId; }
+    public void setShardId(Integer shardId) { this.shardId = shardId; }
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+    public LocalDateTime getProcessedUntil() { return processedUntil; }
+    public void setProcessedUntil(LocalDateTime processedUntil) { this.processedUntil = processedUntil; }
+    public LocalDateTime getRunUntil() { return runUntil; }
+    public void setRunUntil(LocalDateTime runUntil) { this.runUntil = runUntil; }
+    public LocalDateTime getCursorRemindAt() { return cursorRemindAt; }
+    public void setCursorRemindAt(LocalDateTime cursorRemindAt) { this.cursorRemindAt = cursorRemindAt; }
+    public long getLastPlannedSessionId() { return lastPlannedSessionId; }
+    public void setLastPlannedSessionId(long lastPlannedSessionId) { this.lastPlannedSessionId = lastPlannedSessionId; }
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+}
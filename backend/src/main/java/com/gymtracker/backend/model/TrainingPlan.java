@@ -1,24 +1,35 @@
 package com.gymtracker.backend.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trainingPlans")
+// Also reached through lazy references (see User)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class TrainingPlan {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
     private String name;
     private String description;
 
+    // Touching one plan's exercises loads those of up to 32 plans in the persistence context in one select
     @ElementCollection
+    @BatchSize(size = 32)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trainingPlans.exercises")
     private List<String> exercises;
 
     @OneToMany(mappedBy = "plan", cascade = CascadeType.ALL, orphanRemoval = true)
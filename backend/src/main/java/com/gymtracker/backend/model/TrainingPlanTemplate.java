@@ -1,9 +1,15 @@
 package com.gymtracker.backend.model;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trainingPlanTemplates")
 public class TrainingPlanTemplate {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -11,6 +17,8 @@ public class TrainingPlanTemplate {
     private String name;
     private String description;
     @ElementCollection
+    @BatchSize(size = 32)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trainingPlanTemplates.exercises")
     private List<String> exercises;
     // getters and setters
     public Long getId() { return id; }
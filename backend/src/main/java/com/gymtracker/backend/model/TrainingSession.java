@@ -4,15 +4,27 @@ import javax.persistence.*;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_training_session_user_muscle_group", columnList = "user_id, muscle_group"),
+        @Index(name = "idx_training_session_user_date", columnList = "user_id, date")
+})
+// Associations are lazy; list views load the plan (and its owner) in the same select through this graph,
+// the plans' exercise lists follow in batches (see TrainingPlan)
+@NamedEntityGraph(name = TrainingSession.LIST_GRAPH, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode(value = "plan", subgraph = "plan")
+}, subgraphs = @NamedSubgraph(name = "plan", attributeNodes = @NamedAttributeNode("user")))
 public class TrainingSession {
+    public static final String LIST_GRAPH = "TrainingSession.list";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "plan_id")
     private TrainingPlan plan;
 
@@ -20,6 +32,10 @@ public class TrainingSession {
     private Integer weight;
     private String notes;
 
+    // Classified from notes at write time (see MuscleGroupClassifier)
+    @Column(name = "muscle_group", length = 64)
+    private String muscleGroup;
+
     // getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -33,4 +49,6 @@ public class TrainingSession {
     public void setWeight(Integer weight) { this.weight = weight; }
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
+    public String getMuscleGroup() { return muscleGroup; }
+    public void setMuscleGroup(String muscleGroup) { this.muscleGroup = muscleGroup; }
 }
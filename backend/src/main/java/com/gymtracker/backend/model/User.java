@@ -1,9 +1,14 @@
 package com.gymtracker.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import javax.persistence.*;
 
 @Entity
 @Table(name = "users")
+// Lazy references are serialized as the user itself, without the proxy's internals
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -33,6 +38,15 @@ public class User {
     @Column
     private String email;
 
+    // IANA zone id (e.g. "Europe/Warsaw"); null means the server's zone
+    @Column(length = 64)
+    private String timezone;
+
+    // Maintained by DataVersionService with bulk updates only, never written from the entity
+    @Column(name = "data_version", nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private long dataVersion;
+
     // getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -52,4 +66,7 @@ public class User {
     public void setGoalWeight(Integer goalWeight) { this.goalWeight = goalWeight; }
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
+    public String getTimezone() { return timezone; }
+    public void setTimezone(String timezone) { this.timezone = timezone; }
+    public long getDataVersion() { return dataVersion; }
 }
@@ -0,0 +1,42 @@
+package com.gymtracker.backend.model;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated training volume for one user and one ISO week (keyed by the week's Monday).
+ * Maintained incrementally on session writes so volume analytics never has to hydrate sessions.
+ */
+@Entity
+@Table(name = "weekly_volume_rollup",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "week_start"}))
+public class WeeklyVolumeRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Column(nullable = false)
+    private double volume;
+
+    @Column(name = "session_count", nullable = false)
+    private int sessionCount;
+
+    // getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public LocalDate getWeekStart() { return weekStart; }
+    public void setWeekStart(LocalDate weekStart) { this.weekStart = weekStart; }
+    public double getVolume() { return volume; }
+    public void setVolume(double volume) { this.volume = volume; }
+    public int getSessionCount() { return sessionCount; }
+    public void setSessionCount(int sessionCount) { this.sessionCount = sessionCount; }
+}
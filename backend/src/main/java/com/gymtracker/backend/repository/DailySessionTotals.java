@@ -0,0 +1,10 @@
+package com.gymtracker.backend.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Per-day aggregate projection used to (re)build weekly rollups without hydrating sessions.
+ */
+public interface DailySessionTotals extends SessionTotals {
+    LocalDate getDate();
+}
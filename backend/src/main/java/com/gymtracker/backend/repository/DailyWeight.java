@@ -0,0 +1,11 @@
+package com.gymtracker.backend.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Date and weight of a single training session, for progress charts.
+ */
+public interface DailyWeight {
+    LocalDate getDate();
+    Integer getWeight();
+}
@@ -0,0 +1,8 @@
+package com.gymtracker.backend.repository;
+
+/**
+ * Per-muscle-group aggregate projection over training sessions.
+ */
+public interface MuscleGroupTotals extends SessionTotals {
+    String getMuscleGroup();
+}
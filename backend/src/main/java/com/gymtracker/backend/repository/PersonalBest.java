@@ -0,0 +1,12 @@
+package com.gymtracker.backend.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Heaviest recorded session of a user together with its date and plan name.
+ */
+public interface PersonalBest {
+    Integer getWeight();
+    LocalDate getDate();
+    String getPlanName();
+}
@@ -2,9 +2,48 @@ package com.gymtracker.backend.repository;
 
 import com.gymtracker.backend.model.PlannedSession;
 import com.gymtracker.backend.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface PlannedSessionRepository extends JpaRepository<PlannedSession, Long> {
+    @EntityGraph(PlannedSession.LIST_GRAPH)
     List<PlannedSession> findByUserOrderByDateAsc(User user);
+
+    List<PlannedSession> findByUserAndDateGreaterThanEqual(User user, LocalDate date);
+
+    // Keyset chunk (by remindAt, id) of reminders due up to :until for one user shard, user and plan fetched in the same select
+    @Query("select p from PlannedSession p join fetch p.user u left join fetch p.plan " +
+            "where p.remindAt <= :until and (p.remindAt > :afterAt or (p.remindAt = :afterAt and p.id > :afterId)) " +
+            "and u.email is not null and mod(u.id, :shardCount) = :shard order by p.remindAt, p.id")
+    List<PlannedSession> findDueReminders(@Param("afterAt") LocalDateTime afterAt, @Param("afterId") Long afterId,
+                                          @Param("until") LocalDateTime until, @Param("shard") int shard,
+                                          @Param("shardCount") int shardCount, Pageable pageable);
+
+    // Upcoming sessions created before reminder times were stored
+    @Query("select p from PlannedSession p join fetch p.user where p.remindAt is null and p.date >= :from order by p.id")
+    List<PlannedSession> findWithoutRemindAt(@Param("from") LocalDate from, Pageable pageable);
+
+    // Flat [id, notes, userId] rows
+    @Query("select p.id, p.notes, p.user.id from PlannedSession p where p.muscleGroup is null and p.notes is not null order by p.id")
+    List<Object[]> findUnclassified(Pageable pageable);
+
+    @Modifying
+    @Query("update PlannedSession p set p.muscleGroup = :muscleGroup where p.id in :ids")
+    int updateMuscleGroup(@Param("ids") Collection<Long> ids, @Param("muscleGroup") String muscleGroup);
+
+    @Query("select p.id from PlannedSession p where p.plan.id = :planId order by p.id")
+    List<Long> findIdsByPlanId(@Param("planId") Long planId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from PlannedSession p where p.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
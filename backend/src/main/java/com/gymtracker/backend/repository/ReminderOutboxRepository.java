@@ -0,0 +1,49 @@
+package com.gymtracker.backend.repository;
+
+import com.gymtracker.backend.model.ReminderOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ReminderOutboxRepository extends JpaRepository<ReminderOutbox, Long> {
+    @Query("select o.plannedSessionId from ReminderOutbox o where o.plannedSessionId in :ids")
+    List<Long> findExistingPlannedSessionIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select o.id from ReminderOutbox o where o.status = :status and o.nextAttemptAt <= :now order by o.nextAttemptAt, o.id")
+    List<Long> findDueIds(@Param("status") ReminderOutbox.Status status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Conditional on the row still being pending, so concurrent dispatchers never claim the same row
+    @Modifying
+    @Query("update ReminderOutbox o set o.status = :claimed, o.claimToken = :token, o.claimedAt = :now " +
+            "where o.id in :ids and o.status = :pending")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now,
+              @Param("pending") ReminderOutbox.Status pending, @Param("claimed") ReminderOutbox.Status claimed);
+
+    List<ReminderOutbox> findByClaimToken(String claimToken);
+
+    @Modifying
+    @Query("update ReminderOutbox o set o.claimedAt = :now where o.claimToken = :token and o.status = :claimed")
+    int refreshClaim(@Param("token") String token, @Param("now") LocalDateTime now,
+                     @Param("claimed") ReminderOutbox.Status claimed);
+
+    @Modifying
+    @Query("update ReminderOutbox o set o.status = :pending, o.claimToken = null, o.claimedAt = null " +
+            "where o.status = :claimed and o.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff,
+                           @Param("pending") ReminderOutbox.Status pending, @Param("claimed") ReminderOutbox.Status claimed);
+
+    @Modifying
+    @Query("update ReminderOutbox o set o.status = :sent, o.sentAt = :now, o.attempts = o.attempts + 1, " +
+            "o.claimToken = null, o.claimedAt = null, o.lastError = null where o.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now, @Param("sent") ReminderOutbox.Status sent);
+
+    long countByStatus(ReminderOutbox.Status status);
+
+    long countBySentAtAfter(LocalDateTime since);
+}
@@ -0,0 +1,47 @@
+package com.gymtracker.backend.repository;
+
+import com.gymtracker.backend.model.ReminderShardLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReminderShardLeaseRepository extends JpaRepository<ReminderShardLease, Integer> {
+    @Query("select l.shardId from ReminderShardLease l where l.shardId < :shardCount " +
+            "and (l.runUntil is not null or l.processedUntil is null or l.processedUntil < :until)")
+    List<Integer> findShardIdsBehind(@Param("shardCount") int shardCount, @Param("until") LocalDateTime until);
+
+    // Succeeds only if the shard is free, expired, or already ours
+    @Modifying
+    @Query("update ReminderShardLease l set l.owner = :owner, l.leaseUntil = :leaseUntil where l.shardId = :shardId " +
+            "and (l.owner is null or l.owner = :owner or l.leaseUntil < :now)")
+    int tryClaim(@Param("shardId") int shardId, @Param("owner") String owner,
+                 @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Opens a run over (from, until]; the cursor starts after every row due exactly at :from
+    @Modifying
+    @Query("update ReminderShardLease l set l.runUntil = :until, l.cursorRemindAt = :from, " +
+            "l.lastPlannedSessionId = " + Long.MAX_VALUE + "L, l.completed = false " +
+            "where l.shardId = :shardId and l.owner = :owner and l.runUntil is null")
+    int startRun(@Param("shardId") int shardId, @Param("owner") String owner,
+                 @Param("from") LocalDateTime from, @Param("until") LocalDateTime until);
+
+    // Records progress and renews the lease; 0 means the lease was lost to another node
+    @Modifying
+    @Query("update ReminderShardLease l set l.cursorRemindAt = :cursorAt, l.lastPlannedSessionId = :cursorId, " +
+            "l.leaseUntil = :leaseUntil where l.shardId = :shardId and l.owner = :owner and l.runUntil is not null")
+    int advance(@Param("shardId") int shardId, @Param("owner") String owner, @Param("cursorAt") LocalDateTime cursorAt,
+                @Param("cursorId") long cursorId, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("update ReminderShardLease l set l.processedUntil = l.runUntil, l.runUntil = null, l.completed = true " +
+            "where l.shardId = :shardId and l.owner = :owner and l.runUntil is not null")
+    int finishRun(@Param("shardId") int shardId, @Param("owner") String owner);
+
+    @Modifying
+    @Query("update ReminderShardLease l set l.owner = null, l.leaseUntil = null where l.shardId = :shardId and l.owner = :owner")
+    int release(@Param("shardId") int shardId, @Param("owner") String owner);
+}
@@ -0,0 +1,12 @@
+package com.gymtracker.backend.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Aggregate projection adding the first and last session date to {@link SessionTotals}.
+ * Both dates are null when no session matched.
+ */
+public interface SessionSpan extends SessionTotals {
+    LocalDate getFirstDate();
+    LocalDate getLastDate();
+}
@@ -0,0 +1,9 @@
+package com.gymtracker.backend.repository;
+
+/**
+ * Aggregate projection over a set of training sessions: row count and the sum of non-null weights.
+ */
+public interface SessionTotals {
+    Long getSessionCount();
+    Long getWeightSum();
+}
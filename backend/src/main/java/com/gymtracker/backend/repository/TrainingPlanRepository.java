@@ -3,8 +3,26 @@ package com.gymtracker.backend.repository;
 import com.gymtracker.backend.model.TrainingPlan;
 import com.gymtracker.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
 import java.util.List;
 
 public interface TrainingPlanRepository extends JpaRepository<TrainingPlan, Long> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<TrainingPlan> findByUser(User user);
+
+    // Bulk JPQL deletes skip element collections, so the exercise rows are removed explicitly first.
+    // The query space limits second-level cache eviction to the exercise lists (instead of every region).
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "training_plan_exercises"))
+    @Query(value = "delete from training_plan_exercises where training_plan_id = :planId", nativeQuery = true)
+    int deleteExercisesByPlanId(@Param("planId") Long planId);
+
+    @Modifying
+    @Query("delete from TrainingPlan p where p.id = :planId")
+    int deleteByPlanId(@Param("planId") Long planId);
 }
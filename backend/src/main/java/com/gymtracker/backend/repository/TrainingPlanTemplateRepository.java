@@ -2,6 +2,14 @@ package com.gymtracker.backend.repository;
 
 import com.gymtracker.backend.model.TrainingPlanTemplate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.List;
 
 public interface TrainingPlanTemplateRepository extends JpaRepository<TrainingPlanTemplate, Long> {
+    // Served from the query cache, templates and their exercises from the second-level cache
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<TrainingPlanTemplate> findAll();
 }
@@ -2,13 +2,106 @@ package com.gymtracker.backend.repository;
 
 import com.gymtracker.backend.model.TrainingSession;
 import com.gymtracker.backend.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TrainingSessionRepository extends JpaRepository<TrainingSession, Long> {
+    @EntityGraph(TrainingSession.LIST_GRAPH)
     List<TrainingSession> findByUserOrderByDateAsc(User user);
     List<TrainingSession> findByUserOrderByDateDesc(User user);
     List<TrainingSession> findByUserAndDateAfterOrderByDateDesc(User user, LocalDate date);
     List<TrainingSession> findByUserAndDateBetweenOrderByDateDesc(User user, LocalDate startDate, LocalDate endDate);
+
+    long countByUser(User user);
+
+    @EntityGraph(TrainingSession.LIST_GRAPH)
+    @Query("select s from TrainingSession s where s.user = :user order by s.date asc, s.id asc")
+    List<TrainingSession> findPageByUser(@Param("user") User user, Pageable pageable);
+
+    // Keyset page: rows strictly after (date, id) in (date, id) order
+    @EntityGraph(TrainingSession.LIST_GRAPH)
+    @Query("select s from TrainingSession s where s.user = :user " +
+           "and (s.date > :date or (s.date = :date and s.id > :id)) order by s.date asc, s.id asc")
+    List<TrainingSession> findPageByUserAfter(@Param("user") User user, @Param("date") LocalDate date,
+                                              @Param("id") Long id, Pageable pageable);
+
+    // Must be consumed inside a transaction and closed
+    @EntityGraph(TrainingSession.LIST_GRAPH)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select s from TrainingSession s where s.user = :user order by s.date asc, s.id asc")
+    Stream<TrainingSession> streamByUser(@Param("user") User user);
+
+    @Query("select s.date as date, s.weight as weight from TrainingSession s where s.user = :user order by s.date asc, s.id asc")
+    List<DailyWeight> findProgressByUser(@Param("user") User user);
+
+    // Flat [date, weight, muscleGroup, notes] rows for building analytics snapshots without hydrating entities;
+    // notes are only returned for rows the backfill has not classified yet
+    @Query("select s.date, s.weight, s.muscleGroup, case when s.muscleGroup is null then s.notes end from TrainingSession s " +
+           "where s.user = :user and s.date > :after order by s.date asc, s.id asc")
+    List<Object[]> findAnalyticsRowsByUserAndDateAfter(@Param("user") User user, @Param("after") LocalDate after);
+
+    @Query("select count(s) as sessionCount, coalesce(sum(s.weight), 0) as weightSum from TrainingSession s " +
+           "where s.user = :user and s.date > :after and s.date <= :until")
+    SessionTotals sumByUserAndDateRange(@Param("user") User user, @Param("after") LocalDate after, @Param("until") LocalDate until);
+
+    // Flat [id, date, weight] rows for the in-memory training state
+    @Query("select s.id, s.date, s.weight from TrainingSession s where s.user = :user and s.date > :after")
+    List<Object[]> findRecentSessionsByUser(@Param("user") User user, @Param("after") LocalDate after);
+
+    @Query("select count(s) as sessionCount, coalesce(sum(s.weight), 0) as weightSum, " +
+           "min(s.date) as firstDate, max(s.date) as lastDate from TrainingSession s where s.user = :user and s.date > :after")
+    SessionSpan spanByUserAndDateAfter(@Param("user") User user, @Param("after") LocalDate after);
+
+    // Earliest session with the heaviest weight; pass PageRequest.of(0, 1)
+    @Query("select s.weight as weight, s.date as date, p.name as planName from TrainingSession s left join s.plan p " +
+           "where s.user = :user and s.weight is not null order by s.weight desc, s.date asc, s.id asc")
+    List<PersonalBest> findPersonalBests(@Param("user") User user, Pageable pageable);
+
+    @Query("select s.date as date, count(s) as sessionCount, coalesce(sum(s.weight), 0) as weightSum from TrainingSession s " +
+           "where s.user = :user group by s.date")
+    List<DailySessionTotals> sumByUserGroupByDate(@Param("user") User user);
+
+    @Query("select s.muscleGroup as muscleGroup, count(s) as sessionCount, coalesce(sum(s.weight), 0) as weightSum " +
+           "from TrainingSession s where s.user = :user and s.date > :after and s.muscleGroup is not null group by s.muscleGroup")
+    List<MuscleGroupTotals> sumByUserAndDateAfterGroupByMuscleGroup(@Param("user") User user, @Param("after") LocalDate after);
+
+    @Query("select s.weight, s.notes from TrainingSession s " +
+           "where s.user = :user and s.date > :after and s.muscleGroup is null and s.notes is not null")
+    List<Object[]> findUnclassifiedByUserAndDateAfter(@Param("user") User user, @Param("after") LocalDate after);
+
+    // Flat [id, notes, userId] rows
+    @Query("select s.id, s.notes, s.user.id from TrainingSession s where s.muscleGroup is null and s.notes is not null order by s.id")
+    List<Object[]> findUnclassified(Pageable pageable);
+
+    @Modifying
+    @Query("update TrainingSession s set s.muscleGroup = :muscleGroup where s.id in :ids")
+    int updateMuscleGroup(@Param("ids") Collection<Long> ids, @Param("muscleGroup") String muscleGroup);
+
+    @Query("select distinct s.user from TrainingSession s")
+    List<User> findDistinctUsers();
+
+    @Query("select distinct s.user from TrainingSession s where s.date > :after")
+    List<User> findDistinctUsersByDateAfter(@Param("after") LocalDate after);
+
+    // Id pages for chunked set-based deletes (no entities are hydrated)
+    @Query("select s.id from TrainingSession s where s.user = :user order by s.id")
+    List<Long> findIdsByUser(@Param("user") User user, Pageable pageable);
+
+    @Query("select s.id from TrainingSession s where s.plan.id = :planId order by s.id")
+    List<Long> findIdsByPlanId(@Param("planId") Long planId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from TrainingSession s where s.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -2,8 +2,18 @@ package com.gymtracker.backend.repository;
 
 import com.gymtracker.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    @Modifying
+    @Query("update User u set u.dataVersion = u.dataVersion + 1 where u.id = :id")
+    int incrementDataVersion(@Param("id") Long id);
+
+    @Query("select u.dataVersion from User u where u.id = :id")
+    Long findDataVersion(@Param("id") Long id);
 }
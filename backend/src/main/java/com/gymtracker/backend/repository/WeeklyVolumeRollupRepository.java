@@ -0,0 +1,24 @@
+package com.gymtracker.backend.repository;
+
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.model.WeeklyVolumeRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WeeklyVolumeRollupRepository extends JpaRepository<WeeklyVolumeRollup, Long> {
+    List<WeeklyVolumeRollup> findByUserAndWeekStartGreaterThanEqualOrderByWeekStartDesc(User user, LocalDate weekStart);
+
+    @Modifying
+    @Query("update WeeklyVolumeRollup r set r.volume = r.volume + :volume, r.sessionCount = r.sessionCount + 1 " +
+           "where r.user = :user and r.weekStart = :weekStart")
+    int addSession(@Param("user") User user, @Param("weekStart") LocalDate weekStart, @Param("volume") double volume);
+
+    @Modifying
+    @Query("delete from WeeklyVolumeRollup r where r.user = :user")
+    int deleteByUser(@Param("user") User user);
+}
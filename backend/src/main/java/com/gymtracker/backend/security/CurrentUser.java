@@ -0,0 +1,17 @@
+package com.gymtracker.backend.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the {@link com.gymtracker.backend.model.User} resolved by {@link JwtAuthenticationFilter}
+ * for the current request into a controller method parameter.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+    // When false a request without an authenticated user resolves to null instead of failing
+    boolean required() default true;
+}
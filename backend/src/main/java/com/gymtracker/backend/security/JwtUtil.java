@@ -1,21 +1,90 @@
 package com.gymtracker.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
+    // Verified claims keyed by SHA-256 of the token, each kept until the token's own expiry
+    private final Cache<ByteBuffer, Claims> claimsCache;
+
+    // Token verification latency by outcome: served from the claims cache, signature checked, or rejected.
+    // Registered in bindTo(), since the meter registry itself depends on beans that use this class
+    private volatile Timer cachedTimer;
+    private volatile Timer verifiedTimer;
+    private volatile Timer rejectedTimer;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    public JwtUtil(@Value("${jwt.claims-cache.max-size:10000}") long claimsCacheSize) {
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new Expiry<ByteBuffer, Claims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, claims, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, claimsCache, "jwtClaims");
+        cachedTimer = verifyTimer(registry, "cached");
+        verifiedTimer = verifyTimer(registry, "verified");
+        rejectedTimer = verifyTimer(registry, "rejected");
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("JWT signature and expiry checks")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
     public String generateToken(String username) {
         return Jwts.builder()
                 .setSubject(username)
@@ -38,7 +107,56 @@ public class JwtUtil {
         }
     }
 
+    // Subject of a valid, unexpired token, or null; the filter's single per-request check
+    public String verifiedUsername(String token) {
+        long start = System.nanoTime();
+        Timer timer = rejectedTimer;
+        try {
+            ByteBuffer key = digest(token);
+            Claims claims = claimsCache.getIfPresent(key);
+            timer = claims != null ? cachedTimer : verifiedTimer;
+            if (claims == null) {
+                claims = parse(key, token);
+            }
+            if (claims.getExpiration() == null || claims.getExpiration().before(new Date())) {
+                timer = rejectedTimer;
+                return null;
+            }
+            return claims.getSubject();
+        } catch (Exception e) {
+            timer = rejectedTimer;
+            return null;
+        } finally {
+            if (timer != null) timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public CacheStats claimsCacheStats() {
+        return claimsCache.stats();
+    }
+
+    public Cache<ByteBuffer, Claims> getClaimsCache() {
+        return claimsCache;
+    }
+
     private Claims getClaims(String token) {
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        ByteBuffer key = digest(token);
+        Claims claims = claimsCache.getIfPresent(key);
+        return claims != null ? claims : parse(key, token);
+    }
+
+    private Claims parse(ByteBuffer key, String token) {
+        // Invalid or expired tokens throw here and are never cached
+        Claims claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            claimsCache.put(key, claims);
+        }
+        return claims;
+    }
+
+    private static ByteBuffer digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
     }
 }
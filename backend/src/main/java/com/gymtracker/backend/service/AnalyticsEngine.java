@@ -0,0 +1,470 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.MuscleGroupTotals;
+import com.gymtracker.backend.repository.TrainingSessionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Computes the dashboard analytics (volume, muscle balance, performance trends, recovery) from a
+ * {@link SessionSnapshot} in a single pass over primitive columns.
+ */
+@Service
+public class AnalyticsEngine {
+    private static final int TREND_MIN_SESSIONS = 5;
+    private static final int PLATEAU_SESSIONS = 6;
+    public static final int DEFAULT_PERIOD_DAYS = 14;
+    private static final int RECOVERY_DAYS = 14;
+
+    @Autowired private TrainingSessionRepository sessionRepo;
+    @Autowired private MuscleGroupClassifier classifier;
+
+    // Loads every session dated after the given day; rows not yet backfilled are classified on the fly
+    @Transactional(readOnly = true)
+    public SessionSnapshot load(User user, LocalDate after) {
+        List<Object[]> rows = sessionRepo.findAnalyticsRowsByUserAndDateAfter(user, after);
+        for (Object[] row : rows) {
+            if (row[2] == null) row[2] = classifier.classify((String) row[3]);
+        }
+        return SessionSnapshot.fromRows(rows);
+    }
+
+    // Grouped in SQL on the stored muscle_group column
+    @Transactional(readOnly = true)
+    public Map<String, Object> getMuscleGroupBalance(User user, int days) {
+        LocalDate after = LocalDate.now().minusDays(days);
+        Map<String, Integer> muscleGroupCount = new HashMap<>();
+        Map<String, Double> muscleGroupVolume = new HashMap<>();
+        sumMuscleGroups(user, after, muscleGroupCount, muscleGroupVolume);
+        return muscleBalanceResult(muscleGroupCount, muscleGroupVolume);
+    }
+
+    /**
+     * Session count and volume per muscle group for sessions dated after {@code after}, grouped in SQL.
+     * Rows the backfill has not classified yet are classified here.
+     */
+    @Transactional(readOnly = true)
+    public void sumMuscleGroups(User user, LocalDate after, Map<String, Integer> muscleGroupCount,
+                                Map<String, Double> muscleGroupVolume) {
+        for (MuscleGroupTotals totals : sessionRepo.sumByUserAndDateAfterGroupByMuscleGroup(user, after)) {
+            muscleGroupCount.put(totals.getMuscleGroup(), totals.getSessionCount().intValue());
+            muscleGroupVolume.put(totals.getMuscleGroup(), (double) totals.getWeightSum() * VolumeRollupService.VOLUME_PER_WEIGHT_UNIT);
+        }
+        for (Object[] row : sessionRepo.findUnclassifiedByUserAndDateAfter(user, after)) {
+            String muscleGroup = classifier.classify((String) row[1]);
+            muscleGroupCount.merge(muscleGroup, 1, Integer::sum);
+            muscleGroupVolume.merge(muscleGroup, VolumeRollupService.sessionVolume((Integer) row[0]), Double::sum);
+        }
+    }
+
+    public Map<String, Object> getPerformanceTrends(User user, int windowDays, PeriodMetric metric, int top) {
+        LocalDate today = LocalDate.now();
+        SessionSnapshot snapshot = load(user, today.minusMonths(3));
+        long totalSessions = snapshot.size() >= TREND_MIN_SESSIONS ? snapshot.size() : sessionRepo.countByUser(user);
+        Pass pass = new Pass(snapshot, snapshot.size(), snapshot.size(), 0, snapshot.size(), 0);
+        return performanceTrendsResult(pass, totalSessions, windowDays, metric, top);
+    }
+
+    /**
+     * Everything the dashboard needs from one query: the sessions of the widest window are loaded once
+     * and every metric is accumulated in the same pass.
+     */
+    public Map<String, Object> getSummary(User user, int days) {
+        LocalDate today = LocalDate.now();
+        long volumeAfter = today.minusDays(days).toEpochDay();
+        long trendAfter = today.minusMonths(3).toEpochDay();
+        long recoveryAfter = today.minusDays(RECOVERY_DAYS).toEpochDay();
+        long earliest = Math.min(volumeAfter, Math.min(trendAfter, recoveryAfter));
+
+        SessionSnapshot snapshot = load(user, LocalDate.ofEpochDay(earliest));
+        long totalSessions = snapshot.size() >= TREND_MIN_SESSIONS ? snapshot.size() : sessionRepo.countByUser(user);
+        int volumeFrom = snapshot.firstIndexAfter(volumeAfter);
+        Pass pass = new Pass(snapshot, volumeFrom, volumeFrom, snapshot.firstIndexAfter(trendAfter),
+                snapshot.firstIndexAfter(recoveryAfter), snapshot.size() - volumeFrom);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("volume", volumeResult(pass));
+        result.put("muscleBalance", muscleBalanceResult(pass));
+        result.put("performanceTrends", performanceTrendsResult(pass, totalSessions, DEFAULT_PERIOD_DAYS,
+                PeriodMetric.AVG_WEIGHT, 1));
+        result.put("recoveryRecommendations", recoveryResult(pass.recoverySessions, pass.recoveryFirstDay,
+                pass.recoveryLastDay, pass.recoveryVolume));
+        return result;
+    }
+
+    public static double calculateSessionVolume(int weight) {
+        return weight == SessionSnapshot.NO_WEIGHT ? 0.0 : VolumeRollupService.sessionVolume(weight);
+    }
+
+    /**
+     * Accumulates every metric over one scan of the snapshot. Each metric has its own start index;
+     * passing {@code snapshot.size()} disables it.
+     */
+    static final class Pass {
+        final SessionSnapshot snapshot;
+
+        // Volume: weeks are visited in ascending order, emitted newest first
+        int weekCount;
+        int[] weekStarts;
+        double[] weekVolumes;
+        int[] weekSessions;
+        double totalVolume;
+        int volumeSessions;
+
+        // Muscle balance
+        final int[] groupCounts;
+        final double[] groupVolumes;
+
+        // Performance trends
+        final int trendFrom;
+        int recentSessions;
+        double firstHalfSum, secondHalfSum;
+        int firstHalfCount, secondHalfCount;
+        int plateauWeighted;
+        double plateauMax = Double.NEGATIVE_INFINITY, plateauSum;
+
+        // Recovery
+        int recoverySessions;
+        int recoveryFirstDay, recoveryLastDay;
+        double recoveryVolume;
+
+        Pass(SessionSnapshot s, int volumeFrom, int balanceFrom, int trendFrom, int recoveryFrom, int expectedVolumeSessions) {
+            this.snapshot = s;
+            this.trendFrom = trendFrom;
+            int n = s.size();
+            int weekCapacity = Math.min(expectedVolumeSessions, n) + 1;
+            this.weekStarts = new int[weekCapacity];
+            this.weekVolumes = new double[weekCapacity];
+            this.weekSessions = new int[weekCapacity];
+            this.groupCounts = new int[s.getMuscleGroupNames().length];
+            this.groupVolumes = new double[groupCounts.length];
+
+            int recentTotal = n - trendFrom;
+            int half = trendFrom + recentTotal / 2;
+            int plateauFrom = n - PLATEAU_SESSIONS;
+            int from = Math.min(Math.min(volumeFrom, balanceFrom), Math.min(trendFrom, recoveryFrom));
+
+            for (int i = from; i < n; i++) {
+                int day = s.epochDay(i);
+                int weight = s.weight(i);
+                boolean hasWeight = weight != SessionSnapshot.NO_WEIGHT;
+                double volume = calculateSessionVolume(weight);
+
+                if (i >= volumeFrom) {
+                    int week = day - Math.floorMod(day + 3, 7);
+                    if (weekCount == 0 || weekStarts[weekCount - 1] != week) {
+                        if (weekCount == weekStarts.length) growWeeks();
+                        weekStarts[weekCount++] = week;
+                    }
+                    weekVolumes[weekCount - 1] += volume;
+                    weekSessions[weekCount - 1]++;
+                    totalVolume += volume;
+                    volumeSessions++;
+                }
+                if (i >= balanceFrom) {
+                    byte group = s.muscleGroup(i);
+                    if (group != SessionSnapshot.NO_GROUP) {
+                        groupCounts[group]++;
+                        groupVolumes[group] += volume;
+                    }
+                }
+                if (i >= trendFrom) {
+                    recentSessions++;
+                    if (hasWeight) {
+                        if (i < half) { firstHalfSum += weight; firstHalfCount++; }
+                        else { secondHalfSum += weight; secondHalfCount++; }
+                        if (i >= plateauFrom) {
+                            plateauWeighted++;
+                            plateauSum += weight;
+                            plateauMax = Math.max(plateauMax, weight);
+                        }
+                    }
+                }
+                if (i >= recoveryFrom) {
+                    if (recoverySessions == 0) recoveryFirstDay = day;
+                    recoveryLastDay = day;
+                    recoverySessions++;
+                    recoveryVolume += volume;
+                }
+            }
+        }
+
+        private void growWeeks() {
+            int capacity = weekStarts.length * 2;
+            weekStarts = Arrays.copyOf(weekStarts, capacity);
+            weekVolumes = Arrays.copyOf(weekVolumes, capacity);
+            weekSessions = Arrays.copyOf(weekSessions, capacity);
+        }
+    }
+
+    private Map<String, Object> volumeResult(Pass pass) {
+        Map<String, Double> weeklyVolume = new LinkedHashMap<>();
+        Map<String, Integer> weeklySessions = new LinkedHashMap<>();
+        for (int w = pass.weekCount - 1; w >= 0; w--) {
+            String weekKey = LocalDate.ofEpochDay(pass.weekStarts[w]).toString();
+            weeklyVolume.put(weekKey, pass.weekVolumes[w]);
+            weeklySessions.put(weekKey, pass.weekSessions[w]);
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("weeklyVolume", weeklyVolume);
+        result.put("weeklySessions", weeklySessions);
+        result.put("totalVolume", pass.totalVolume);
+        result.put("totalSessions", pass.volumeSessions);
+        return result;
+    }
+
+    private Map<String, Object> muscleBalanceResult(Pass pass) {
+        String[] names = pass.snapshot.getMuscleGroupNames();
+        Map<String, Integer> muscleGroupCount = new HashMap<>();
+        Map<String, Double> muscleGroupVolume = new HashMap<>();
+        for (int g = 0; g < names.length; g++) {
+            if (pass.groupCounts[g] > 0) {
+                muscleGroupCount.put(names[g], pass.groupCounts[g]);
+                muscleGroupVolume.put(names[g], pass.groupVolumes[g]);
+            }
+        }
+        return muscleBalanceResult(muscleGroupCount, muscleGroupVolume);
+    }
+
+    private Map<String, Object> muscleBalanceResult(Map<String, Integer> muscleGroupCount, Map<String, Double> muscleGroupVolume) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("muscleGroupCount", muscleGroupCount);
+        result.put("muscleGroupVolume", muscleGroupVolume);
+        result.put("recommendations", generateBalanceRecommendations(muscleGroupCount));
+        return result;
+    }
+
+    private Map<String, Object> performanceTrendsResult(Pass pass, long totalSessions, int windowDays,
+                                                        PeriodMetric metric, int top) {
+        Map<String, Object> result = new HashMap<>();
+        if (totalSessions < TREND_MIN_SESSIONS) {
+            result.put("message", "Need at least 5 sessions for trend analysis");
+            return result;
+        }
+        
+        // Performance trend (improvement/plateau/decline)
+        result.put("trend", calculatePerformanceTrend(pass));
+        
+        // Plateau detection
+        result.put("plateauDetected", detectPlateau(pass));
+        
+        // Best performance periods
+        if (pass.recentSessions < 3) {
+            result.put("bestPeriod", Collections.singletonMap("message", "Insufficient data"));
+        } else {
+            List<Map<String, Object>> periods = findBestPerformancePeriods(pass.snapshot, pass.trendFrom, windowDays, metric, top);
+            result.put("bestPeriod", periods.isEmpty() ? noBestPeriod() : periods.get(0));
+            result.put("bestPeriods", periods);
+        }
+        
+        return result;
+    }
+
+    private static Map<String, Object> noBestPeriod() {
+        Map<String, Object> bestPeriod = new HashMap<>();
+        bestPeriod.put("startDate", null);
+        bestPeriod.put("averageWeight", 0.0);
+        bestPeriod.put("endDate", null);
+        return bestPeriod;
+    }
+
+    static Map<String, Object> recoveryResult(int sessions, long firstDay, long lastDay, double totalVolume) {
+        Map<String, Object> result = new HashMap<>();
+        
+        if (sessions == 0) {
+            result.put("message", "No recent training data");
+            return result;
+        }
+        
+        // Consecutive gaps in date order telescope to (last - first)
+        double averageGapDays = sessions < 2 ? 0 : (double) (lastDay - firstDay) / (sessions - 1);
+        
+        // Recovery recommendations based on frequency and volume
+        List<String> recommendations = new ArrayList<>();
+        
+        if (averageGapDays < 1.0) {
+            recommendations.add("Consider adding more rest days between sessions");
+            recommendations.add("Your training frequency is very high - ensure adequate sleep and nutrition");
+        } else if (averageGapDays > 3.0) {
+            recommendations.add("You could increase training frequency for better progress");
+            recommendations.add("Try to maintain consistency with 3-4 sessions per week");
+        } else {
+            recommendations.add("Good training frequency! Maintain current schedule");
+        }
+        
+        // Volume-based recommendations
+        double avgVolume = totalVolume / sessions;
+        if (avgVolume > 50000) { // High volume threshold
+            recommendations.add("High training volume detected - ensure adequate recovery");
+            recommendations.add("Consider deload week every 4-6 weeks");
+        }
+        
+        result.put("averageRestDays", averageGapDays);
+        result.put("recommendations", recommendations);
+        result.put("trainingFrequency", sessions / (double) RECOVERY_DAYS * 7); // sessions per week
+        return result;
+    }
+
+    private List<String> generateBalanceRecommendations(Map<String, Integer> muscleGroupCount) {
+        List<String> recommendations = new ArrayList<>();
+        
+        if (muscleGroupCount.isEmpty()) {
+            recommendations.add("Start tracking muscle groups in your notes for better analysis");
+            return recommendations;
+        }
+        
+        int maxCount = Collections.max(muscleGroupCount.values());
+        int minCount = Collections.min(muscleGroupCount.values());
+        
+        if (maxCount > minCount * 2) {
+            String mostTrained = muscleGroupCount.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse("unknown");
+            
+            String leastTrained = muscleGroupCount.entrySet().stream()
+                .min(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse("unknown");
+            
+            recommendations.add(String.format("Consider more %s training to balance with %s", leastTrained, mostTrained));
+        } else {
+            recommendations.add("Good muscle group balance!");
+        }
+        
+        return recommendations;
+    }
+
+    static String calculatePerformanceTrend(Pass pass) {
+        if (pass.recentSessions < TREND_MIN_SESSIONS) return "insufficient_data";
+        
+        // Simple trend analysis based on average weights over time
+        double firstHalfAvg = pass.firstHalfCount == 0 ? 0 : pass.firstHalfSum / pass.firstHalfCount;
+        double secondHalfAvg = pass.secondHalfCount == 0 ? 0 : pass.secondHalfSum / pass.secondHalfCount;
+        
+        double improvement = (secondHalfAvg - firstHalfAvg) / firstHalfAvg * 100;
+        
+        if (improvement > 5) return "improving";
+        else if (improvement < -5) return "declining";
+        else return "stable";
+    }
+
+    static boolean detectPlateau(Pass pass) {
+        // Check if last 6 sessions show no improvement
+        if (pass.recentSessions < PLATEAU_SESSIONS || pass.plateauWeighted < PLATEAU_SESSIONS) return false;
+        
+        double avgWeight = pass.plateauSum / PLATEAU_SESSIONS;
+        
+        // Plateau if max weight is not significantly higher than average
+        return (pass.plateauMax - avgWeight) / avgWeight < 0.05; // Less than 5% variation
+    }
+
+    /**
+     * Ranks periods of {@code windowDays} days, each anchored at a session date, by the given metric and
+     * returns up to {@code top} non-overlapping periods, best first. A period covers the anchor date and
+     * the {@code windowDays - 1} days after it, so {@code endDate} is its last day. Window sums are maintained with two
+     * pointers, so scoring every anchor is linear in the number of sessions.
+     */
+    public static List<Map<String, Object>> findBestPerformancePeriods(SessionSnapshot s, int from, int windowDays,
+                                                                       PeriodMetric metric, int top) {
+        // Candidate sessions: weighted ones for weight-based metrics, all of them for session count
+        boolean weightedOnly = metric != PeriodMetric.SESSION_COUNT;
+        int[] days = new int[s.size() - from];
+        int[] weights = new int[days.length];
+        int[] weighted = new int[days.length];
+        int count = 0;
+        for (int i = from; i < s.size(); i++) {
+            if (weightedOnly && !s.hasWeight(i)) continue;
+            days[count] = s.epochDay(i);
+            weights[count] = s.hasWeight(i) ? s.weight(i) : 0;
+            weighted[count] = s.hasWeight(i) ? 1 : 0;
+            count++;
+        }
+        
+        // Score every anchor (first session of each date, leaving at least two sessions after it)
+        int[] anchorDays = new int[Math.max(count - 2, 0)];
+        int[] anchorSessions = new int[anchorDays.length];
+        long[] anchorWeightSums = new long[anchorDays.length];
+        int[] anchorWeighted = new int[anchorDays.length];
+        double[] scores = new double[anchorDays.length];
+        int anchors = 0;
+        long windowSum = 0;
+        int windowWeighted = 0;
+        int right = 0;
+        for (int left = 0; left < count - 2; ) {
+            int startDay = days[left];
+            while (right < count && days[right] < startDay + windowDays) {
+                windowWeighted += weighted[right];
+                windowSum += weights[right++];
+            }
+            int periodSessions = right - left;
+            if (periodSessions >= 2) {
+                anchorDays[anchors] = startDay;
+                anchorSessions[anchors] = periodSessions;
+                anchorWeightSums[anchors] = windowSum;
+                anchorWeighted[anchors] = windowWeighted;
+                scores[anchors] = metric.score(windowSum, periodSessions);
+                anchors++;
+            }
+            // Slide past every session on this date
+            do {
+                windowWeighted -= weighted[left];
+                windowSum -= weights[left++];
+            } while (left < count && days[left] == startDay);
+        }
+        
+        // Pick the best non-overlapping periods; ties keep the earliest period
+        List<Map<String, Object>> periods = new ArrayList<>();
+        int[] chosen = new int[top];
+        while (periods.size() < top) {
+            int best = -1;
+            for (int a = 0; a < anchors; a++) {
+                if (scores[a] > 0 && (best < 0 || scores[a] > scores[best])
+                        && !overlapsChosen(anchorDays, chosen, periods.size(), anchorDays[a], windowDays)) {
+                    best = a;
+                }
+            }
+            if (best < 0) break;
+            chosen[periods.size()] = best;
+            
+            Map<String, Object> period = new HashMap<>();
+            period.put("startDate", LocalDate.ofEpochDay(anchorDays[best]));
+            period.put("endDate", LocalDate.ofEpochDay(anchorDays[best] + windowDays - 1));
+            period.put("sessions", anchorSessions[best]);
+            period.put("averageWeight", anchorWeighted[best] == 0 ? 0.0 : (double) anchorWeightSums[best] / anchorWeighted[best]);
+            period.put("totalVolume", (double) anchorWeightSums[best] * VolumeRollupService.VOLUME_PER_WEIGHT_UNIT);
+            period.put("score", scores[best]);
+            periods.add(period);
+        }
+        return periods;
+    }
+
+    private static boolean overlapsChosen(int[] anchorDays, int[] chosen, int chosenCount, int startDay, int windowDays) {
+        for (int c = 0; c < chosenCount; c++) {
+            int chosenStart = anchorDays[chosen[c]];
+            if (startDay < chosenStart + windowDays && chosenStart < startDay + windowDays) return true;
+        }
+        return false;
+    }
+
+    public enum PeriodMetric {
+        AVG_WEIGHT, TOTAL_VOLUME, SESSION_COUNT;
+
+        double score(long weightSum, int sessions) {
+            switch (this) {
+                case TOTAL_VOLUME: return (double) weightSum * VolumeRollupService.VOLUME_PER_WEIGHT_UNIT;
+                case SESSION_COUNT: return sessions;
+                default: return (double) weightSum / sessions;
+            }
+        }
+
+        public static PeriodMetric fromParam(String value) {
+            return valueOf(value.trim().toUpperCase());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.gymtracker.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gymtracker.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Per-user data version: a counter in {@code users.data_version} incremented after every change to
+ * the user's training data (any {@link TrainingDataChangedEvent}) or profile. GET responses carry it
+ * as their ETag, so an unchanged version means the response would be unchanged too. Versions are
+ * cached per node; a local bump drops the entry at once, bumps on other nodes are seen once the
+ * entry is {@code data-version.ttl-seconds} old.
+ */
+@Service
+public class DataVersionService {
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private final Cache<Long, Long> versions;
+
+    public DataVersionService(@Value("${data-version.max-users:100000}") long maxUsers,
+                              @Value("${data-version.ttl-seconds:5}") long ttlSeconds) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public long current(Long userId) {
+        Long version = versions.get(userId, id -> userRepository.findDataVersion(id));
+        return version == null ? 0 : version;
+    }
+
+    // Invalidated after the increment commits; a load of the same user in progress completes first
+    public void bump(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> userRepository.incrementDataVersion(userId));
+        versions.invalidate(userId);
+    }
+
+    @EventListener
+    public void onTrainingDataChanged(TrainingDataChangedEvent event) {
+        bump(event.getUserId());
+    }
+
+    public Cache<?, ?> getCache() {
+        return versions;
+    }
+}
@@ -0,0 +1,70 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.repository.PlannedSessionRepository;
+import com.gymtracker.backend.repository.TrainingSessionRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Classifies sessions written before the muscle_group column existed. Runs in the background in
+ * fixed-size chunks, one transaction per chunk, until no unclassified rows are left. The muscle
+ * group is part of the session responses, so each chunk is announced as a change to its users' data.
+ */
+@Service
+public class MuscleGroupBackfillService {
+    private static final Logger log = LoggerFactory.getLogger(MuscleGroupBackfillService.class);
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired private TrainingSessionRepository sessionRepo;
+    @Autowired private PlannedSessionRepository plannedRepo;
+    @Autowired private MuscleGroupClassifier classifier;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    // Shortly after startup, then every 10 minutes (a no-op once everything is classified)
+    @Scheduled(initialDelay = 10000, fixedDelay = 600000)
+    @Timed("training.muscle-group-backfill")
+    public void backfill() {
+        int sessions = backfill(sessionRepo::findUnclassified, sessionRepo::updateMuscleGroup);
+        int planned = backfill(plannedRepo::findUnclassified, plannedRepo::updateMuscleGroup);
+        if (sessions > 0 || planned > 0) {
+            log.info("Classified muscle groups for {} training sessions and {} planned sessions", sessions, planned);
+        }
+    }
+
+    private int backfill(Function<PageRequest, List<Object[]>> findUnclassified,
+                         BiFunction<Collection<Long>, String, Integer> updateMuscleGroup) {
+        int total = 0;
+        while (true) {
+            Set<Long> userIds = new HashSet<>();
+            Integer classified = transactionTemplate.execute(status -> {
+                List<Object[]> rows = findUnclassified.apply(PageRequest.of(0, CHUNK_SIZE));
+                Map<String, List<Long>> idsByGroup = new HashMap<>();
+                for (Object[] row : rows) {
+                    String group = classifier.classify((String) row[1]);
+                    idsByGroup.computeIfAbsent(group, g -> new ArrayList<>()).add((Long) row[0]);
+                    userIds.add((Long) row[2]);
+                }
+                idsByGroup.forEach((group, ids) -> updateMuscleGroup.apply(ids, group));
+                return rows.size();
+            });
+            if (classified == null || classified == 0) return total;
+            total += classified;
+            // After the commit; dates and weights are unchanged, so in-memory training states stay valid
+            for (Long userId : userIds) {
+                eventPublisher.publishEvent(new TrainingDataChangedEvent(userId, false));
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.gymtracker.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/**
+ * Classifies free-text session notes into a muscle group. An explicit {@code [group]} tag wins;
+ * otherwise the notes are scanned once with an Aho-Corasick automaton over the known keywords and the
+ * highest-priority keyword found is returned. Notes without a match classify as {@link #OTHER}.
+ */
+@Component
+public class MuscleGroupClassifier {
+    public static final String OTHER = "other";
+    public static final int MAX_LENGTH = 64;
+
+    // Keyword priority is list order: "back and chest" classifies as chest
+    private static final String[] KEYWORDS = {"chest", "back", "legs", "shoulders", "arms", "biceps", "triceps", "abs", "glutes"};
+    private static final int ALPHABET = 26;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final int[][] transitions;
+    private final int[] bestKeyword;
+
+    public MuscleGroupClassifier() {
+        int maxStates = 1;
+        for (String keyword : KEYWORDS) maxStates += keyword.length();
+        int[][] next = new int[maxStates][];
+        int[] output = new int[maxStates];
+        int[] fail = new int[maxStates];
+        next[0] = new int[ALPHABET];
+        Arrays.fill(next[0], -1);
+        output[0] = NO_MATCH;
+        int states = 1;
+
+        // Trie of keywords
+        for (int k = 0; k < KEYWORDS.length; k++) {
+            int state = 0;
+            for (char c : KEYWORDS[k].toCharArray()) {
+                int symbol = c - 'a';
+                if (next[state][symbol] < 0) {
+                    next[states] = new int[ALPHABET];
+                    Arrays.fill(next[states], -1);
+                    output[states] = NO_MATCH;
+                    next[state][symbol] = states++;
+                }
+                state = next[state][symbol];
+            }
+            output[state] = Math.min(output[state], k);
+        }
+
+        // Breadth-first failure links, folded into a complete transition table
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            if (next[0][symbol] < 0) {
+                next[0][symbol] = 0;
+            } else {
+                fail[next[0][symbol]] = 0;
+                queue.add(next[0][symbol]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] = Math.min(output[state], output[fail[state]]);
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = next[state][symbol];
+                if (child < 0) {
+                    next[state][symbol] = next[fail[state]][symbol];
+                } else {
+                    fail[child] = next[fail[state]][symbol];
+                    queue.add(child);
+                }
+            }
+        }
+        this.transitions = Arrays.copyOf(next, states);
+        this.bestKeyword = Arrays.copyOf(output, states);
+    }
+
+    public String classify(String notes) {
+        if (notes == null) return null;
+        
+        // Extract muscle group from [muscleGroup] format
+        int open = notes.indexOf('[');
+        int close = notes.indexOf(']');
+        if (open >= 0 && close > open + 1) {
+            String tagged = notes.substring(open + 1, close).toLowerCase();
+            return tagged.length() > MAX_LENGTH ? tagged.substring(0, MAX_LENGTH) : tagged;
+        }
+        
+        // Fallback to keyword detection in a single pass
+        int state = 0;
+        int best = NO_MATCH;
+        for (int i = 0, n = notes.length(); i < n; i++) {
+            int symbol = Character.toLowerCase(notes.charAt(i)) - 'a';
+            if (symbol < 0 || symbol >= ALPHABET) {
+                state = 0;
+                continue;
+            }
+            state = transitions[state][symbol];
+            if (bestKeyword[state] < best) {
+                best = bestKeyword[state];
+                if (best == 0) break;
+            }
+        }
+        return best == NO_MATCH ? OTHER : KEYWORDS[best];
+    }
+}
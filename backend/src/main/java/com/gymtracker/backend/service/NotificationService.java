@@ -1,40 +1,46 @@
 package com.gymtracker.backend.service;
 
 import com.gymtracker.backend.model.PlannedSession;
-import com.gymtracker.backend.model.User;
-import com.gymtracker.backend.repository.PlannedSessionRepository;
-import com.gymtracker.backend.repository.UserRepository;
+import com.gymtracker.backend.model.ReminderOutbox;
+import com.gymtracker.backend.repository.ReminderOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 
+/**
+ * Turns planned sessions into queued reminder emails. Which sessions are due, and when, is decided by
+ * ReminderShardScheduler; delivery is done by ReminderDispatcher.
+ */
 @Service
 public class NotificationService {
-    @Autowired private PlannedSessionRepository plannedRepo;
-    @Autowired private UserRepository userRepo;
-    @Autowired(required = false) private JavaMailSender mailSender;
+    @Autowired private ReminderOutboxRepository outboxRepo;
+    @Autowired private TransactionTemplate transactionTemplate;
 
-    // Run every day at 8:00 AM
-    @Scheduled(cron = "0 0 8 * * *")
-    public void sendPlannedSessionReminders() {
-        LocalDate tomorrow = LocalDate.now().plusDays(1);
-        List<PlannedSession> sessions = plannedRepo.findAll();
-        for (PlannedSession session : sessions) {
-            if (session.getDate() != null && session.getDate().equals(tomorrow)) {
-                User user = session.getUser();
-                if (user.getEmail() != null && mailSender != null) {
-                    SimpleMailMessage message = new SimpleMailMessage();
-                    message.setTo(user.getEmail());
-                    message.setSubject("GymTracker: Training Session Reminder");
-                    message.setText("Reminder: You have a planned training session tomorrow (" + session.getDate() + ") for plan: " + (session.getPlan() != null ? session.getPlan().getName() : "No plan") + ".");
-                    mailSender.send(message);
-                }
+    // Sessions that already have an outbox row are skipped, so re-running a chunk never duplicates a reminder
+    public int enqueue(List<PlannedSession> sessions) {
+        Integer queued = transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>(sessions.size());
+            for (PlannedSession session : sessions) ids.add(session.getId());
+            Set<Long> existing = new HashSet<>(outboxRepo.findExistingPlannedSessionIds(ids));
+            LocalDateTime now = LocalDateTime.now();
+            List<ReminderOutbox> rows = new ArrayList<>();
+            for (PlannedSession session : sessions) {
+                if (existing.contains(session.getId())) continue;
+                ReminderOutbox row = new ReminderOutbox();
+                row.setPlannedSessionId(session.getId());
+                row.setRecipient(session.getUser().getEmail());
+                row.setSubject("GymTracker: Training Session Reminder");
+                row.setBody("Reminder: You have a planned training session tomorrow (" + session.getDate() + ") for plan: " + (session.getPlan() != null ? session.getPlan().getName() : "No plan") + ".");
+                row.setCreatedAt(now);
+                row.setNextAttemptAt(now);
+                rows.add(row);
             }
-        }
+            outboxRepo.saveAll(rows);
+            return rows.size();
+        });
+        return queued == null ? 0 : queued;
     }
 }
@@ -0,0 +1,161 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.TrainingPlan;
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.TrainingPlanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Generates a multi-week program of recommended sessions and schedules all of them in one call.
+ * Dates follow the recovery heuristics of the workout suggestions: the program starts once the user
+ * is recovered from their last workout, and each session's type depends on the rest before it.
+ * Sessions are written with a single JDBC batch insert in one transaction (IDENTITY ids rule out
+ * Hibernate insert batching), so a program is either scheduled completely or not at all.
+ */
+@Service
+public class ProgramSchedulingService {
+    public static final int MAX_WEEKS = 52;
+    public static final int MAX_SESSIONS_PER_WEEK = 7;
+    // Muscle group balance is judged on the same history as the workout suggestions
+    private static final int HISTORY_DAYS = 14;
+    private static final String[] MAJOR_MUSCLE_GROUPS = {"chest", "back", "legs", "shoulders", "arms"};
+
+    private static final String INSERT_SQL =
+            "INSERT INTO planned_session (date, notes, completed, muscle_group, remind_at, user_id, plan_id,"
+                    + " title, session_type, target_muscle, intensity, estimated_time)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] ARG_TYPES = {Types.DATE, Types.VARCHAR, Types.BOOLEAN, Types.VARCHAR, Types.TIMESTAMP,
+            Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER};
+
+    @Autowired private TrainingPlanRepository planRepo;
+    @Autowired private TrainingStateService trainingStateService;
+    @Autowired private AnalyticsEngine analyticsEngine;
+    @Autowired private MuscleGroupClassifier classifier;
+    @Autowired private ReminderTimes reminderTimes;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    public Map<String, Object> scheduleProgram(User user, int weeks, int sessionsPerWeek, LocalDate startDate,
+                                               int availableTime, String equipment, String fitnessGoal, Long planId) {
+        if (weeks < 1 || weeks > MAX_WEEKS) {
+            throw new IllegalArgumentException("weeks must be between 1 and " + MAX_WEEKS);
+        }
+        if (sessionsPerWeek < 1 || sessionsPerWeek > MAX_SESSIONS_PER_WEEK) {
+            throw new IllegalArgumentException("sessionsPerWeek must be between 1 and " + MAX_SESSIONS_PER_WEEK);
+        }
+        if (availableTime <= 0) {
+            throw new IllegalArgumentException("availableTime must be positive");
+        }
+        LocalDate today = LocalDate.now(ReminderTimes.zoneOf(user));
+        if (startDate != null && startDate.isBefore(today)) {
+            throw new IllegalArgumentException("startDate must not be in the past");
+        }
+        Long planIdValue = null;
+        if (planId != null) {
+            Optional<TrainingPlan> plan = planRepo.findById(planId);
+            if (!plan.isPresent() || !plan.get().getUser().getId().equals(user.getId())) {
+                throw new IllegalArgumentException("Unknown plan: " + planId);
+            }
+            planIdValue = planId;
+        }
+
+        // Start no earlier than two days after the last workout, as for the next suggested date
+        LocalDate lastWorkout = trainingStateService.lastWorkout(user);
+        LocalDate start = startDate != null ? startDate : today.plusDays(1);
+        if (lastWorkout != null && start.isBefore(lastWorkout.plusDays(2))) {
+            start = lastWorkout.plusDays(2);
+        }
+
+        Deque<String> rotation = muscleRotation(user);
+        List<Map<String, Object>> sessions = new ArrayList<>(weeks * sessionsPerWeek);
+        List<Object[]> batch = new ArrayList<>(weeks * sessionsPerWeek);
+        LocalDate previous = lastWorkout;
+        boolean previousRecovery = false;
+        for (int week = 0; week < weeks; week++) {
+            for (int i = 0; i < sessionsPerWeek; i++) {
+                // Spread evenly over the week, leaving any back-to-back days at the end of it
+                LocalDate date = start.plusDays(week * 7L + (i * 7 + sessionsPerWeek - 1) / sessionsPerWeek);
+                long gap = previous == null ? 7 : ChronoUnit.DAYS.between(previous, date);
+
+                Map<String, Object> session = recommendation(gap, previousRecovery, availableTime, equipment, fitnessGoal);
+                String targetMuscle = null;
+                if (!"recovery".equals(session.get("type"))) {
+                    targetMuscle = rotation.pollFirst();
+                    rotation.addLast(targetMuscle);
+                }
+                session.put("date", date.toString());
+                session.put("targetMuscle", targetMuscle);
+                sessions.add(session);
+
+                String title = (String) session.get("title");
+                String muscleGroup = targetMuscle != null
+                        ? classifier.classify("[" + targetMuscle + "]") : classifier.classify(title);
+                batch.add(new Object[]{Date.valueOf(date), session.get("description"), false, muscleGroup,
+                        Timestamp.valueOf(reminderTimes.remindAt(date, user)), user.getId(), planIdValue,
+                        title, session.get("type"), targetMuscle, session.get("intensity"), session.get("estimatedTime")});
+
+                previous = date;
+                previousRecovery = "recovery".equals(session.get("type"));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, ARG_TYPES));
+        eventPublisher.publishEvent(new TrainingDataChangedEvent(user.getId(), false));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("scheduled", sessions.size());
+        result.put("startDate", sessions.get(0).get("date"));
+        result.put("endDate", sessions.get(sessions.size() - 1).get("date"));
+        result.put("sessions", sessions);
+        return result;
+    }
+
+    // Same rules as the recovery-based workout suggestion, never two recovery sessions in a row
+    private static Map<String, Object> recommendation(long gap, boolean previousRecovery, int availableTime,
+                                                      String equipment, String fitnessGoal) {
+        Map<String, Object> rec = new LinkedHashMap<>();
+        if (gap >= 3) {
+            rec.put("title", "High-Intensity Session");
+            rec.put("description", "You're well-rested! Perfect time for a challenging compound movement session");
+            rec.put("type", "intensity");
+            rec.put("intensity", "high");
+            rec.put("estimatedTime", availableTime);
+        } else if (gap <= 1 && !previousRecovery) {
+            rec.put("title", "Active Recovery");
+            rec.put("description", "Light cardio and stretching to promote recovery");
+            rec.put("type", "recovery");
+            rec.put("intensity", "low");
+            rec.put("estimatedTime", Math.min(availableTime, 30));
+        } else {
+            Map<String, Object> goal = RecommendationService.createGoalBasedRecommendation(fitnessGoal, availableTime, equipment);
+            rec.put("title", goal.get("title"));
+            rec.put("description", goal.get("description"));
+            rec.put("type", goal.get("type"));
+            rec.put("intensity", goal.get("intensity"));
+            rec.put("estimatedTime", goal.get("estimatedTime"));
+        }
+        return rec;
+    }
+
+    // Major muscle groups, least trained in the recent history first
+    private Deque<String> muscleRotation(User user) {
+        Map<String, Integer> frequency = new HashMap<>();
+        analyticsEngine.sumMuscleGroups(user, LocalDate.now().minusDays(HISTORY_DAYS), frequency, new HashMap<>());
+        List<String> groups = new ArrayList<>(Arrays.asList(MAJOR_MUSCLE_GROUPS));
+        // Stable sort keeps the default order between groups trained equally often
+        groups.sort(Comparator.comparingInt(group -> frequency.getOrDefault(group, 0)));
+        return new ArrayDeque<>(groups);
+    }
+}
@@ -0,0 +1,328 @@
+package com.gymtracker.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.SessionSpan;
+import com.gymtracker.backend.repository.TrainingSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Workout suggestions for /api/ai-recommendations/workout-suggestions. Results only change when the
+ * user's training data changes or the date rolls over, so they are cached per (user, preferences,
+ * date). The user's data version (see {@link DataVersionService}) is part of the key, so once a write
+ * has bumped it, on this node or another, a result computed from data read before the write is no
+ * longer served.
+ */
+@Service
+public class RecommendationService {
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+    // Training history the suggestions are based on
+    private static final int HISTORY_DAYS = 14;
+
+    public static final int DEFAULT_AVAILABLE_TIME = 60;
+    public static final String DEFAULT_EQUIPMENT = "full_gym";
+    public static final String DEFAULT_FITNESS_GOAL = "general_fitness";
+
+    @Autowired private TrainingSessionRepository sessionRepo;
+    @Autowired private AnalyticsEngine analyticsEngine;
+    @Autowired private DataVersionService dataVersionService;
+
+    private final Cache<Key, Map<String, Object>> cache;
+
+    public RecommendationService(@Value("${recommendations.cache.max-size:50000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // Long enough for entries pre-warmed at night to survive until the evening;
+                // entries of older data versions are never read again and age out with the rest
+                .expireAfterWrite(Duration.ofHours(24))
+                .recordStats()
+                .build();
+    }
+
+    private static final class Key {
+        final Long userId;
+        final long version;
+        final int availableTime;
+        final String equipment;
+        final String fitnessGoal;
+        final LocalDate date;
+
+        Key(Long userId, long version, int availableTime, String equipment, String fitnessGoal, LocalDate date) {
+            this.userId = userId;
+            this.version = version;
+            this.availableTime = availableTime;
+            this.equipment = equipment;
+            this.fitnessGoal = fitnessGoal;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return version == k.version && availableTime == k.availableTime && userId.equals(k.userId)
+                    && equipment.equals(k.equipment) && fitnessGoal.equals(k.fitnessGoal) && date.equals(k.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, version, availableTime, equipment, fitnessGoal, date);
+        }
+    }
+
+    public Map<String, Object> workoutSuggestions(User user, int availableTime, String equipment, String fitnessGoal) {
+        Key key = new Key(user.getId(), dataVersionService.current(user.getId()),
+                availableTime, equipment, fitnessGoal, LocalDate.now());
+        return cache.get(key, k -> compute(user, availableTime, equipment, fitnessGoal));
+    }
+
+    public Cache<?, ?> getCache() {
+        return cache;
+    }
+
+    /**
+     * Computes today's suggestions shortly after midnight for users who trained in the last two weeks,
+     * for each preference combination they asked for since the last run (the defaults if none).
+     */
+    @Scheduled(cron = "${recommendations.prewarm-cron:0 5 0 * * *}")
+    public void prewarm() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Set<List<Object>>> preferences = new HashMap<>();
+        for (Key key : cache.asMap().keySet()) {
+            if (key.date.isBefore(today)) {
+                preferences.computeIfAbsent(key.userId, id -> new HashSet<>())
+                        .add(Arrays.<Object>asList(key.availableTime, key.equipment, key.fitnessGoal));
+            }
+        }
+        List<Object> defaults = Arrays.<Object>asList(DEFAULT_AVAILABLE_TIME, DEFAULT_EQUIPMENT, DEFAULT_FITNESS_GOAL);
+        int warmed = 0;
+        for (User user : sessionRepo.findDistinctUsersByDateAfter(today.minusDays(HISTORY_DAYS))) {
+            Set<List<Object>> combinations = preferences.getOrDefault(user.getId(), Collections.singleton(defaults));
+            for (List<Object> prefs : combinations) {
+                try {
+                    workoutSuggestions(user, (Integer) prefs.get(0), (String) prefs.get(1), (String) prefs.get(2));
+                    warmed++;
+                } catch (RuntimeException e) {
+                    log.warn("Recommendation pre-warm failed: userId={} error={}", user.getId(), e.toString());
+                }
+            }
+        }
+        log.info("Pre-warmed {} workout recommendation entries", warmed);
+    }
+
+    private Map<String, Object> compute(User user, int availableTime, String equipment, String fitnessGoal) {
+        // Analyze recent training history with aggregate queries instead of loading sessions
+        LocalDate since = LocalDate.now().minusDays(HISTORY_DAYS);
+        SessionSpan recentSpan = sessionRepo.spanByUserAndDateAfter(user, since);
+        Map<String, Integer> muscleGroupFrequency = analyzeMuscleGroupFrequency(user, since);
+
+        Map<String, Object> result = new HashMap<>();
+
+        // Generate personalized recommendations
+        List<Map<String, Object>> recommendations = generateRecommendations(
+            recentSpan.getLastDate(), muscleGroupFrequency, availableTime, equipment, fitnessGoal);
+
+        result.put("recommendations", recommendations);
+        result.put("basedOnData", getAnalysisSummary(recentSpan, muscleGroupFrequency));
+        result.put("nextSuggestedDate", getNextSuggestedTrainingDate(recentSpan.getLastDate()));
+
+        // Shared between requests, so never modified after this point
+        return Collections.unmodifiableMap(result);
+    }
+
+    static List<Map<String, Object>> generateRecommendations(LocalDate lastWorkout, Map<String, Integer> muscleGroupFrequency,
+                                                              int availableTime, String equipment, String fitnessGoal) {
+        List<Map<String, Object>> recommendations = new ArrayList<>();
+
+        // Analyze training patterns
+        long daysSinceLastWorkout = lastWorkout == null ? 7 :
+            ChronoUnit.DAYS.between(lastWorkout, LocalDate.now());
+
+        // Recommendation 1: Based on muscle group balance
+        String undertrainedMuscle = findUndertrainedMuscleGroup(muscleGroupFrequency);
+        if (undertrainedMuscle != null) {
+            Map<String, Object> rec1 = new HashMap<>();
+            rec1.put("title", "Balance Your Training");
+            rec1.put("description", String.format("Focus on %s training to improve muscle balance", undertrainedMuscle));
+            rec1.put("type", "muscle_balance");
+            rec1.put("targetMuscle", undertrainedMuscle);
+            rec1.put("priority", "high");
+            rec1.put("estimatedTime", Math.min(availableTime, 45));
+            recommendations.add(rec1);
+        }
+
+        // Recommendation 2: Based on recovery status
+        if (daysSinceLastWorkout >= 3) {
+            Map<String, Object> rec2 = new HashMap<>();
+            rec2.put("title", "High-Intensity Session");
+            rec2.put("description", "You're well-rested! Perfect time for a challenging compound movement session");
+            rec2.put("type", "intensity");
+            rec2.put("intensity", "high");
+            rec2.put("priority", "medium");
+            rec2.put("estimatedTime", availableTime);
+            recommendations.add(rec2);
+        } else if (daysSinceLastWorkout <= 1) {
+            Map<String, Object> rec2 = new HashMap<>();
+            rec2.put("title", "Active Recovery");
+            rec2.put("description", "Light cardio and stretching to promote recovery");
+            rec2.put("type", "recovery");
+            rec2.put("intensity", "low");
+            rec2.put("priority", "medium");
+            rec2.put("estimatedTime", Math.min(availableTime, 30));
+            recommendations.add(rec2);
+        }
+
+        // Recommendation 3: Based on fitness goal
+        Map<String, Object> rec3 = createGoalBasedRecommendation(fitnessGoal, availableTime, equipment);
+        if (rec3 != null) {
+            recommendations.add(rec3);
+        }
+
+        // Recommendation 4: Quick option for time constraints
+        if (availableTime <= 30) {
+            Map<String, Object> rec4 = new HashMap<>();
+            rec4.put("title", "Quick HIIT Session");
+            rec4.put("description", "High-intensity interval training for maximum efficiency");
+            rec4.put("type", "time_efficient");
+            rec4.put("intensity", "high");
+            rec4.put("priority", "high");
+            rec4.put("estimatedTime", availableTime);
+            rec4.put("exercises", Arrays.asList("Burpees", "Mountain Climbers", "Jump Squats", "Push-ups"));
+            recommendations.add(rec4);
+        }
+
+        return recommendations.stream()
+            .sorted((a, b) -> {
+                String priorityA = (String) a.get("priority");
+                String priorityB = (String) b.get("priority");
+                return getPriorityValue(priorityB) - getPriorityValue(priorityA);
+            })
+            .limit(3)
+            .collect(Collectors.toList());
+    }
+
+    private Map<String, Integer> analyzeMuscleGroupFrequency(User user, LocalDate since) {
+        Map<String, Integer> frequency = new HashMap<>();
+        analyticsEngine.sumMuscleGroups(user, since, frequency, new HashMap<>());
+        frequency.remove(MuscleGroupClassifier.OTHER);
+        return frequency;
+    }
+
+    private static String findUndertrainedMuscleGroup(Map<String, Integer> frequency) {
+        if (frequency.isEmpty()) return "chest"; // Default suggestion
+
+        String[] majorMuscleGroups = {"chest", "back", "legs", "shoulders", "arms"};
+        String leastTrained = null;
+        int minCount = Integer.MAX_VALUE;
+
+        for (String muscle : majorMuscleGroups) {
+            int count = frequency.getOrDefault(muscle, 0);
+            if (count < minCount) {
+                minCount = count;
+                leastTrained = muscle;
+            }
+        }
+
+        return leastTrained;
+    }
+
+    static Map<String, Object> createGoalBasedRecommendation(String goal, int availableTime, String equipment) {
+        Map<String, Object> rec = new HashMap<>();
+
+        switch (goal.toLowerCase()) {
+            case "strength":
+                rec.put("title", "Strength Building Session");
+                rec.put("description", "Focus on compound movements with heavy weights and low reps");
+                rec.put("type", "strength");
+                rec.put("intensity", "high");
+                rec.put("priority", "medium");
+                rec.put("estimatedTime", Math.max(45, availableTime));
+                rec.put("exercises", Arrays.asList("Deadlifts", "Squats", "Bench Press", "Overhead Press"));
+                break;
+
+            case "muscle_building":
+                rec.put("title", "Hypertrophy Training");
+                rec.put("description", "Moderate weights, higher volume for muscle growth");
+                rec.put("type", "hypertrophy");
+                rec.put("intensity", "medium-high");
+                rec.put("priority", "medium");
+                rec.put("estimatedTime", availableTime);
+                rec.put("exercises", Arrays.asList("Incline Press", "Rows", "Leg Press", "Lateral Raises"));
+                break;
+
+            case "endurance":
+                rec.put("title", "Endurance Circuit");
+                rec.put("description", "High rep, low weight circuit training");
+                rec.put("type", "endurance");
+                rec.put("intensity", "medium");
+                rec.put("priority", "medium");
+                rec.put("estimatedTime", availableTime);
+                rec.put("exercises", Arrays.asList("Bodyweight Squats", "Push-ups", "Lunges", "Planks"));
+                break;
+
+            default:
+                rec.put("title", "General Fitness");
+                rec.put("description", "Balanced workout combining strength and cardio");
+                rec.put("type", "general");
+                rec.put("intensity", "medium");
+                rec.put("priority", "low");
+                rec.put("estimatedTime", availableTime);
+                break;
+        }
+
+        return rec;
+    }
+
+    private static Map<String, Object> getAnalysisSummary(SessionSpan recentSpan, Map<String, Integer> muscleGroupFrequency) {
+        Map<String, Object> summary = new HashMap<>();
+
+        int totalSessions = recentSpan.getSessionCount().intValue();
+        summary.put("totalSessions", totalSessions);
+        summary.put("averageFrequency", totalSessions / 2.0); // per week
+
+        if (totalSessions > 0) {
+            long daysSinceLastWorkout = ChronoUnit.DAYS.between(
+                recentSpan.getLastDate(), LocalDate.now());
+            summary.put("daysSinceLastWorkout", daysSinceLastWorkout);
+            summary.put("trainedMuscleGroups", muscleGroupFrequency.keySet());
+        }
+
+        return summary;
+    }
+
+    private static String getNextSuggestedTrainingDate(LocalDate lastWorkout) {
+        if (lastWorkout == null) {
+            return LocalDate.now().toString();
+        }
+
+        long daysSince = ChronoUnit.DAYS.between(lastWorkout, LocalDate.now());
+
+        if (daysSince >= 2) {
+            return LocalDate.now().toString();
+        } else {
+            return lastWorkout.plusDays(2).toString();
+        }
+    }
+
+    private static int getPriorityValue(String priority) {
+        switch (priority.toLowerCase()) {
+            case "high": return 3;
+            case "medium": return 2;
+            case "low": return 1;
+            default: return 0;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.ReminderOutbox;
+import com.gymtracker.backend.repository.ReminderOutboxRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the reminder outbox. The scheduler thread only claims due rows (bounded by the per-minute
+ * rate limit and free worker capacity); a small worker pool sends each claimed batch over a single
+ * SMTP connection via {@code JavaMailSender.send(MimeMessage...)} and records the outcome per row.
+ * Failed rows are retried with exponential backoff up to a maximum number of attempts.
+ *
+ * <p>The rate limit is shared by every node: it is checked against the outbox itself, counting the
+ * reminders sent in the last minute and those claimed but not yet sent. Nodes polling at the same
+ * moment can each claim one batch past the limit before seeing the other's claim.
+ */
+@Service
+public class ReminderDispatcher implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(ReminderDispatcher.class);
+    // Replies awaited per message (MAIL FROM, RCPT TO, DATA, end of data) and for the connection
+    // (greeting, EHLO), each bounded by the SMTP read timeout
+    private static final int SMTP_REPLIES_PER_MESSAGE = 4;
+    private static final int SMTP_REPLIES_PER_CONNECTION = 2;
+    private static final long MIN_STALE_CLAIM_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired private ReminderOutboxRepository outboxRepo;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired(required = false) private JavaMailSender mailSender;
+
+    @Value("${reminders.mail.workers:4}")
+    private int workers;
+    @Value("${reminders.mail.batch-size:50}")
+    private int batchSize;
+    // Across all nodes; 0 means unlimited
+    @Value("${reminders.mail.rate-per-minute:600}")
+    private int ratePerMinute;
+    @Value("${reminders.mail.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${reminders.mail.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds;
+    @Value("${spring.mail.from:}")
+    private String from;
+    @Value("${spring.mail.properties.mail.smtp.connectiontimeout:5000}")
+    private long connectTimeoutMillis;
+    @Value("${spring.mail.properties.mail.smtp.timeout:10000}")
+    private long readTimeoutMillis;
+    @Value("${spring.mail.properties.mail.smtp.writetimeout:10000}")
+    private long writeTimeoutMillis;
+
+    // A claim older than this belongs to a dispatcher that died mid-batch
+    private long staleClaimMillis;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchNanos = new AtomicLong();
+
+    // Kept private rather than a bean so it does not replace Spring's default application task executor
+    @PostConstruct
+    void startWorkers() {
+        staleClaimMillis = staleClaimMillis();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers * 2);
+        executor.setThreadNamePrefix("reminder-mail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        executor.shutdown();
+    }
+
+    // Longest a live worker can spend sending one batch before the SMTP timeouts fail it
+    private long staleClaimMillis() {
+        long connection = connectTimeoutMillis + SMTP_REPLIES_PER_CONNECTION * readTimeoutMillis;
+        long perMessage = SMTP_REPLIES_PER_MESSAGE * readTimeoutMillis + writeTimeoutMillis;
+        return Math.max(MIN_STALE_CLAIM_MILLIS, connection + batchSize * perMessage);
+    }
+
+    @Scheduled(fixedDelayString = "${reminders.mail.poll-interval-ms:5000}")
+    @Timed(value = "reminders.dispatch", description = "Outbox polls: stale claim release and batch claiming")
+    public void dispatch() {
+        if (mailSender == null) return;
+        LocalDateTime now = LocalDateTime.now();
+        Integer released = transactionTemplate.execute(status -> outboxRepo.releaseStaleClaims(
+                now.minus(staleClaimMillis, ChronoUnit.MILLIS), ReminderOutbox.Status.PENDING, ReminderOutbox.Status.SENDING));
+        if (released != null && released > 0) {
+            log.warn("Released {} stale reminder claims", released);
+        }
+        while (executor.getThreadPoolExecutor().getQueue().remainingCapacity() > 0) {
+            int permits = availablePermits();
+            if (permits == 0) break;
+            List<ReminderOutbox> batch = claim(Math.min(batchSize, permits));
+            if (batch.isEmpty()) break;
+            try {
+                executor.execute(() -> send(batch));
+            } catch (TaskRejectedException e) {
+                // Left claimed; releaseStaleClaims hands the rows back once the claim times out
+                log.warn("Reminder worker pool rejected a batch of {}", batch.size());
+                break;
+            }
+        }
+    }
+
+    // Sliding one-minute window over what every node has sent or is sending
+    private int availablePermits() {
+        if (ratePerMinute <= 0) return Integer.MAX_VALUE;
+        long used = outboxRepo.countByStatus(ReminderOutbox.Status.SENDING)
+                + outboxRepo.countBySentAtAfter(LocalDateTime.now().minusMinutes(1));
+        return (int) Math.max(ratePerMinute - used, 0);
+    }
+
+    private List<ReminderOutbox> claim(int limit) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxRepo.findDueIds(ReminderOutbox.Status.PENDING, now, PageRequest.of(0, limit));
+            if (ids.isEmpty()) return Collections.<ReminderOutbox>emptyList();
+            String token = UUID.randomUUID().toString();
+            outboxRepo.claim(ids, token, now, ReminderOutbox.Status.PENDING, ReminderOutbox.Status.SENDING);
+            return outboxRepo.findByClaimToken(token);
+        });
+    }
+
+    private void send(List<ReminderOutbox> batch) {
+        // The claim's age restarts when the send does, so time spent queued never counts against it.
+        // A claim released meanwhile may already have been claimed again; those rows are left to it.
+        String token = batch.get(0).getClaimToken();
+        Integer refreshed = transactionTemplate.execute(status -> outboxRepo.refreshClaim(
+                token, LocalDateTime.now(), ReminderOutbox.Status.SENDING));
+        if (refreshed == null || refreshed == 0) {
+            log.warn("Skipped a batch of {} reminders whose claim was released before sending", batch.size());
+            return;
+        }
+        long start = System.nanoTime();
+        Map<MimeMessage, ReminderOutbox> rows = new LinkedHashMap<>();
+        Map<ReminderOutbox, Exception> failures = new HashMap<>();
+        for (ReminderOutbox row : batch) {
+            try {
+                rows.put(toMessage(row), row);
+            } catch (MessagingException e) {
+                failures.put(row, e);
+            }
+        }
+        try {
+            mailSender.send(rows.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Messages not listed here were delivered; an empty map means nothing was
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (Map.Entry<MimeMessage, ReminderOutbox> entry : rows.entrySet()) {
+                Exception error = failedMessages.isEmpty() ? e : failedMessages.get(entry.getKey());
+                if (error != null) failures.put(entry.getValue(), error);
+            }
+        } catch (MailException e) {
+            for (ReminderOutbox row : rows.values()) failures.put(row, e);
+        }
+        recordOutcome(batch, failures);
+        batches.incrementAndGet();
+        batchNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private MimeMessage toMessage(ReminderOutbox row) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        if (!from.isEmpty()) helper.setFrom(from);
+        helper.setTo(row.getRecipient());
+        helper.setSubject(row.getSubject());
+        helper.setText(row.getBody());
+        return message;
+    }
+
+    private void recordOutcome(List<ReminderOutbox> batch, Map<ReminderOutbox, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> delivered = new ArrayList<>(batch.size());
+        List<ReminderOutbox> undelivered = new ArrayList<>(failures.size());
+        for (ReminderOutbox row : batch) {
+            Exception error = failures.get(row);
+            if (error == null) {
+                delivered.add(row.getId());
+                continue;
+            }
+            row.setAttempts(row.getAttempts() + 1);
+            row.setClaimToken(null);
+            row.setClaimedAt(null);
+            row.setLastError(truncate(String.valueOf(error.getMessage())));
+            if (row.getAttempts() >= maxAttempts) {
+                row.setStatus(ReminderOutbox.Status.FAILED);
+                failed.incrementAndGet();
+            } else {
+                // 30s, 60s, 120s, ... after the 1st, 2nd, 3rd failed attempt
+                row.setStatus(ReminderOutbox.Status.PENDING);
+                row.setNextAttemptAt(now.plusSeconds(retryBackoffSeconds << (row.getAttempts() - 1)));
+                retried.incrementAndGet();
+            }
+            undelivered.add(row);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) outboxRepo.markSent(delivered, now, ReminderOutbox.Status.SENT);
+            if (!undelivered.isEmpty()) outboxRepo.saveAll(undelivered);
+        });
+        sent.addAndGet(delivered.size());
+        if (!undelivered.isEmpty()) {
+            log.warn("{} of {} reminders in batch not delivered", undelivered.size(), batch.size());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    // The getStats() figures as meters; the backlog gauge runs one count query per scrape
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        outcomeCounter(registry, "sent", sent);
+        outcomeCounter(registry, "retried", retried);
+        outcomeCounter(registry, "failed", failed);
+        FunctionTimer.builder("reminders.mail.batch", this, d -> d.batches.get(), d -> d.batchNanos.get(), TimeUnit.NANOSECONDS)
+                .description("SMTP batch sends")
+                .register(registry);
+        Gauge.builder("reminders.outbox.pending", this, d -> d.outboxRepo.countByStatus(ReminderOutbox.Status.PENDING))
+                .description("Reminders waiting in the outbox")
+                .register(registry);
+        Gauge.builder("reminders.mail.workers.active", this, d -> d.executor.getActiveCount())
+                .register(registry);
+    }
+
+    private void outcomeCounter(MeterRegistry registry, String outcome, AtomicLong counter) {
+        FunctionCounter.builder("reminders.mail", counter, AtomicLong::get)
+                .description("Reminder delivery attempts by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    // Throughput counters since startup plus the current outbox backlog
+    public Map<String, Object> getStats() {
+        long batchCount = batches.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sent", sent.get());
+        stats.put("retried", retried.get());
+        stats.put("failed", failed.get());
+        stats.put("batches", batchCount);
+        stats.put("averageBatchMillis", batchCount == 0 ? 0.0 : batchNanos.get() / 1e6 / batchCount);
+        stats.put("pending", outboxRepo.countByStatus(ReminderOutbox.Status.PENDING));
+        stats.put("activeWorkers", executor.getActiveCount());
+        return stats;
+    }
+}
@@ -0,0 +1,200 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.PlannedSession;
+import com.gymtracker.backend.model.ReminderShardLease;
+import com.gymtracker.backend.repository.PlannedSessionRepository;
+import com.gymtracker.backend.repository.ReminderShardLeaseRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Queues planned-session reminders as a rolling stream. Every few minutes the scheduler closes the
+ * latest time slice and queues the reminders due in it, i.e. those of users whose local send time
+ * (see ReminderTimes) fell inside the slice, which spreads SMTP load across the day.
+ *
+ * <p>Work is split across backend nodes: users are sharded by id, a node claims a shard through a
+ * lease row, queues its due reminders in keyset chunks and records a cursor after every chunk. Nodes
+ * therefore work on different shards in parallel, a crashed node's shard is resumed where it stopped
+ * once its lease expires, and slices missed while every node was down are caught up on the next tick
+ * (up to {@link #MAX_CATCH_UP_HOURS}). The outbox's unique planned-session constraint makes delivery
+ * exactly-once per planned session even if a chunk is processed twice.
+ */
+@Service
+public class ReminderShardScheduler {
+    private static final Logger log = LoggerFactory.getLogger(ReminderShardScheduler.class);
+    private static final int CHUNK_SIZE = 500;
+    private static final int BACKFILL_CHUNK_SIZE = 500;
+    // Reminders due longer ago than this are for sessions that have already happened
+    private static final long MAX_CATCH_UP_HOURS = 24;
+
+    @Autowired private PlannedSessionRepository plannedRepo;
+    @Autowired private ReminderShardLeaseRepository leaseRepo;
+    @Autowired private NotificationService notificationService;
+    @Autowired private ReminderTimes reminderTimes;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired(required = false) private JavaMailSender mailSender;
+
+    // Changing the shard count re-partitions users; the outbox's unique constraint still prevents duplicates
+    @Value("${reminders.shards:16}")
+    private int shardCount;
+    @Value("${reminders.lease-seconds:120}")
+    private long leaseSeconds;
+    @Value("${reminders.slice-minutes:5}")
+    private long sliceMinutes;
+    @Value("${reminders.node-id:}")
+    private String nodeId;
+
+    private String owner;
+
+    private String owner() {
+        if (owner == null) {
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                host = "node";
+            }
+            owner = nodeId.isEmpty() ? host + "-" + UUID.randomUUID().toString().substring(0, 8) : nodeId;
+        }
+        return owner;
+    }
+
+    // Shortly after each slice boundary (every 5 minutes by default)
+    @Scheduled(cron = "${reminders.cron:15 */5 * * * *}")
+    @Timed(value = "reminders.queue", description = "Reminder slice runs across all claimed shards")
+    public void sendPlannedSessionReminders() {
+        if (mailSender == null) return;
+        backfillRemindAt();
+        LocalDateTime until = reminderTimes.sliceEnd(LocalDateTime.now(ZoneOffset.UTC)).minusMinutes(sliceMinutes);
+
+        ensureShards();
+        List<Integer> shards = leaseRepo.findShardIdsBehind(shardCount, until);
+        // Random order so concurrently ticking nodes mostly try different shards first
+        Collections.shuffle(shards);
+        for (Integer shard : shards) {
+            ReminderShardLease lease = claim(shard, until);
+            if (lease == null) continue;
+            try {
+                int queued = process(shard, lease);
+                if (queued > 0) {
+                    log.info("Reminder shard {} up to {} UTC: queued {} reminders", shard, lease.getRunUntil(), queued);
+                }
+            } finally {
+                transactionTemplate.executeWithoutResult(status -> leaseRepo.release(shard, owner()));
+            }
+        }
+    }
+
+    // Planned sessions written before reminder times were stored get theirs computed on the next tick
+    private void backfillRemindAt() {
+        LocalDate from = LocalDate.now().minusDays(1);
+        while (true) {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<PlannedSession> sessions = plannedRepo.findWithoutRemindAt(from, PageRequest.of(0, BACKFILL_CHUNK_SIZE));
+                for (PlannedSession session : sessions) {
+                    session.setRemindAt(reminderTimes.remindAt(session.getDate(), session.getUser()));
+                }
+                return sessions.size();
+            });
+            if (updated == null || updated < BACKFILL_CHUNK_SIZE) return;
+        }
+    }
+
+    private void ensureShards() {
+        if (leaseRepo.count() >= shardCount) return;
+        Set<Integer> existing = new HashSet<>();
+        for (ReminderShardLease lease : leaseRepo.findAll()) existing.add(lease.getShardId());
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (existing.contains(shard)) continue;
+            ReminderShardLease lease = new ReminderShardLease();
+            lease.setShardId(shard);
+            try {
+                transactionTemplate.executeWithoutResult(status -> leaseRepo.save(lease));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+            }
+        }
+    }
+
+    // Claims the shard and opens a run up to :until unless one is already in progress; null when
+    // another node holds the shard or it is already up to date
+    private ReminderShardLease claim(int shard, LocalDateTime until) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            if (leaseRepo.tryClaim(shard, owner(), now, now.plusSeconds(leaseSeconds)) == 0) return null;
+            ReminderShardLease lease = leaseRepo.findById(shard).orElse(null);
+            if (lease == null) return null;
+            if (lease.getRunUntil() == null) {
+                LocalDateTime from = lease.getProcessedUntil();
+                if (from != null && !from.isBefore(until)) {
+                    leaseRepo.release(shard, owner());
+                    return null;
+                }
+                LocalDateTime earliest = until.minusHours(MAX_CATCH_UP_HOURS);
+                if (from == null) {
+                    from = until.minusMinutes(sliceMinutes);
+                } else if (from.isBefore(earliest)) {
+                    from = earliest;
+                }
+                leaseRepo.startRun(shard, owner(), from, until);
+                lease.setRunUntil(until);
+                lease.setCursorRemindAt(from);
+                lease.setLastPlannedSessionId(Long.MAX_VALUE);
+            }
+            return lease;
+        });
+    }
+
+    // Each chunk's outbox rows and the cursor that covers them commit together
+    private int process(int shard, ReminderShardLease lease) {
+        LocalDateTime until = lease.getRunUntil();
+        LocalDateTime cursorAt = lease.getCursorRemindAt();
+        long cursorId = lease.getLastPlannedSessionId();
+        int queued = 0;
+        while (true) {
+            LocalDateTime afterAt = cursorAt;
+            long afterId = cursorId;
+            List<PlannedSession> sessions = new ArrayList<>();
+            Integer chunkQueued = transactionTemplate.execute(status -> {
+                sessions.addAll(plannedRepo.findDueReminders(afterAt, afterId, until, shard, shardCount,
+                        PageRequest.of(0, CHUNK_SIZE)));
+                if (sessions.isEmpty()) {
+                    leaseRepo.finishRun(shard, owner());
+                    return 0;
+                }
+                PlannedSession last = sessions.get(sessions.size() - 1);
+                if (leaseRepo.advance(shard, owner(), last.getRemindAt(), last.getId(),
+                        LocalDateTime.now(ZoneOffset.UTC).plusSeconds(leaseSeconds)) == 0) {
+                    return null;
+                }
+                int count = notificationService.enqueue(sessions);
+                if (sessions.size() < CHUNK_SIZE) leaseRepo.finishRun(shard, owner());
+                return count;
+            });
+            if (chunkQueued == null) {
+                log.warn("Lost lease on reminder shard {}", shard);
+                return queued;
+            }
+            queued += chunkQueued;
+            if (sessions.size() < CHUNK_SIZE) return queued;
+            cursorAt = sessions.get(sessions.size() - 1).getRemindAt();
+            cursorId = sessions.get(sessions.size() - 1).getId();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.PlannedSession;
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.PlannedSessionRepository;
+import com.gymtracker.backend.repository.ReminderOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes when a planned session's reminder is due: at the configured send time, in the user's own
+ * timezone, on the day before the session. The result is stored in UTC on the planned session so the
+ * rolling scheduler can select due reminders with a single indexed range query.
+ */
+@Component
+public class ReminderTimes {
+    @Autowired private PlannedSessionRepository plannedRepo;
+    @Autowired private ReminderOutboxRepository outboxRepo;
+
+    @Value("${reminders.send-time:08:00}")
+    private String sendTime;
+    @Value("${reminders.slice-minutes:5}")
+    private long sliceMinutes;
+
+    public static ZoneId zoneOf(User user) {
+        return user.getTimezone() == null ? ZoneId.systemDefault() : ZoneId.of(user.getTimezone());
+    }
+
+    // ZonedDateTime resolves DST: a send time inside a spring-forward gap moves past the gap, and in
+    // a fall-back overlap the earlier offset is used, so each local date yields exactly one instant
+    public LocalDateTime remindAt(LocalDate sessionDate, User user) {
+        ZonedDateTime local = ZonedDateTime.of(sessionDate.minusDays(1), LocalTime.parse(sendTime), zoneOf(user));
+        return LocalDateTime.ofInstant(local.toInstant(), ZoneOffset.UTC);
+    }
+
+    // End of the slice containing :utc, which the scheduler closes on its first tick after it
+    public LocalDateTime sliceEnd(LocalDateTime utc) {
+        return utc.truncatedTo(ChronoUnit.HOURS).plusMinutes(utc.getMinute() / sliceMinutes * sliceMinutes + sliceMinutes);
+    }
+
+    // After a timezone change; reminders already queued are unaffected. A reminder the new timezone
+    // puts in the past would sit behind the slices the scheduler has already closed, so it is moved
+    // to the current slice instead
+    @Transactional
+    public void reschedule(User user) {
+        List<PlannedSession> upcoming = plannedRepo.findByUserAndDateGreaterThanEqual(user, LocalDate.now(zoneOf(user)));
+        if (upcoming.isEmpty()) return;
+        List<Long> ids = new ArrayList<>();
+        for (PlannedSession session : upcoming) ids.add(session.getId());
+        Set<Long> queued = new HashSet<>(outboxRepo.findExistingPlannedSessionIds(ids));
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (PlannedSession session : upcoming) {
+            if (queued.contains(session.getId())) continue;
+            LocalDateTime at = remindAt(session.getDate(), user);
+            session.setRemindAt(at.isAfter(now) ? at : sliceEnd(now));
+        }
+        plannedRepo.saveAll(upcoming);
+    }
+}
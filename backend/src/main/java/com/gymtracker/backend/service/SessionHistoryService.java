@@ -0,0 +1,110 @@
+package com.gymtracker.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gymtracker.backend.model.TrainingSession;
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.TrainingSessionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Reads a user's session history without materializing it all at once: keyset pages ordered by
+ * (date, id) and an NDJSON stream that keeps at most one fetch chunk in the persistence context.
+ */
+@Service
+public class SessionHistoryService {
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final byte[] NEWLINE = {'\n'};
+
+    @Autowired private TrainingSessionRepository sessionRepo;
+    @Autowired private ObjectMapper objectMapper;
+    @PersistenceContext private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public SessionHistoryService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Returns up to {@code limit} sessions after the given cursor (or from the start when it is null)
+     * together with the cursor of the last returned row, or a null cursor on the last page.
+     */
+    public Map<String, Object> page(User user, int limit, String after) {
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        List<TrainingSession> sessions;
+        if (after == null || after.isEmpty()) {
+            sessions = sessionRepo.findPageByUser(user, pageRequest);
+        } else {
+            Cursor cursor = Cursor.parse(after);
+            sessions = sessionRepo.findPageByUserAfter(user, cursor.date, cursor.id, pageRequest);
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("sessions", sessions);
+        result.put("nextCursor", sessions.size() < limit ? null : Cursor.of(sessions.get(sessions.size() - 1)));
+        return result;
+    }
+
+    // Writes one JSON document per line; the persistence context is cleared after every chunk
+    public void streamNdjson(User user, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<TrainingSession> sessions = sessionRepo.streamByUser(user)) {
+                int written = 0;
+                for (Iterator<TrainingSession> it = sessions.iterator(); it.hasNext(); ) {
+                    out.write(objectMapper.writeValueAsBytes(it.next()));
+                    out.write(NEWLINE);
+                    if (++written % STREAM_CHUNK_SIZE == 0) {
+                        out.flush();
+                        entityManager.clear();
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Opaque to clients: "<date>:<id>" of the last row of a page
+    static final class Cursor {
+        final LocalDate date;
+        final Long id;
+
+        private Cursor(LocalDate date, Long id) {
+            this.date = date;
+            this.id = id;
+        }
+
+        static String of(TrainingSession session) {
+            return session.getDate() + ":" + session.getId();
+        }
+
+        static Cursor parse(String value) {
+            int separator = value.lastIndexOf(':');
+            if (separator < 0) throw new IllegalArgumentException("Invalid cursor: " + value);
+            try {
+                return new Cursor(LocalDate.parse(value.substring(0, separator)), Long.valueOf(value.substring(separator + 1)));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.gymtracker.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gymtracker.backend.model.TrainingPlan;
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.TrainingPlanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Bulk import of historical training sessions from a JSON array or a CSV upload. Rows are parsed
+ * and validated one at a time as the body is read, valid rows are written with JDBC batch inserts
+ * in fixed-size chunks (one transaction per chunk), and invalid rows are reported without
+ * aborting the rest of the import.
+ */
+@Service
+public class SessionImportService {
+    private static final int BATCH_SIZE = 500;
+    // Errors beyond this are still counted in "failed" but not listed
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_NOTES_LENGTH = 255;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO training_session (date, weight, notes, plan_id, user_id, muscle_group) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired private TrainingPlanRepository planRepo;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private MuscleGroupClassifier classifier;
+    @Autowired private VolumeRollupService volumeRollupService;
+    @Autowired private ObjectMapper objectMapper;
+
+    public Map<String, Object> importJson(User user, InputStream in) throws IOException {
+        Import imp = new Import(user);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of sessions");
+            }
+            int row = 0;
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    if (token != JsonToken.START_OBJECT) {
+                        // Any other element is reported and skipped, the rows after it are still imported
+                        imp.reject(++row, "Expected an object");
+                        parser.skipChildren();
+                        continue;
+                    }
+                    Map<?, ?> fields = parser.readValueAs(Map.class);
+                    row++;
+                    imp.add(row, fields.get("date"), fields.get("weight"), fields.get("notes"), fields.get("planId"));
+                }
+            } catch (JsonProcessingException e) {
+                // Everything before the malformed element is still imported
+                imp.reject(row + 1, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        } finally {
+            imp.complete();
+        }
+        return imp.result();
+    }
+
+    // Expects a header row naming the columns: date, weight, notes, planId (any order, only date required)
+    public Map<String, Object> importCsv(User user, Reader reader) throws IOException {
+        Import imp = new Import(user);
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null || !header.contains("date")) {
+            throw new IllegalArgumentException("CSV header must include a date column");
+        }
+        int date = header.indexOf("date");
+        int weight = header.indexOf("weight");
+        int notes = header.indexOf("notes");
+        int planId = header.indexOf("planId");
+        int row = 0;
+        List<String> record;
+        try {
+            while ((record = csv.readRecord()) != null) {
+                row++;
+                if (record.size() == 1 && record.get(0).isEmpty()) continue;
+                imp.add(row, column(record, date), column(record, weight), column(record, notes), column(record, planId));
+            }
+        } finally {
+            imp.complete();
+        }
+        return imp.result();
+    }
+
+    private static String column(List<String> record, int index) {
+        if (index < 0 || index >= record.size()) return null;
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // Per-request import state: the user's plan ids (loaded once), the pending batch and the error report
+    private final class Import {
+        private final User user;
+        private final Set<Long> planIds = new HashSet<>();
+        private final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        Import(User user) {
+            this.user = user;
+            for (TrainingPlan plan : planRepo.findByUser(user)) {
+                planIds.add(plan.getId());
+            }
+        }
+
+        void add(int row, Object dateValue, Object weightValue, Object notesValue, Object planIdValue) {
+            LocalDate date;
+            Integer weight = null;
+            Long planId = null;
+            String notes = notesValue != null ? notesValue.toString() : null;
+            if (dateValue == null) {
+                reject(row, "date is required");
+                return;
+            }
+            try {
+                date = LocalDate.parse(dateValue.toString());
+            } catch (DateTimeParseException e) {
+                reject(row, "Invalid date: " + dateValue);
+                return;
+            }
+            if (weightValue != null) {
+                try {
+                    weight = Integer.valueOf(weightValue.toString());
+                } catch (NumberFormatException e) {
+                    reject(row, "Invalid weight: " + weightValue);
+                    return;
+                }
+            }
+            if (planIdValue != null) {
+                try {
+                    planId = Long.valueOf(planIdValue.toString());
+                } catch (NumberFormatException e) {
+                    reject(row, "Invalid planId: " + planIdValue);
+                    return;
+                }
+                if (!planIds.contains(planId)) {
+                    reject(row, "Unknown plan: " + planId);
+                    return;
+                }
+            }
+            if (notes != null && notes.length() > MAX_NOTES_LENGTH) {
+                reject(row, "notes longer than " + MAX_NOTES_LENGTH + " characters");
+                return;
+            }
+            batch.add(new Object[]{Date.valueOf(date), weight, notes, planId, user.getId(), classifier.classify(notes)});
+            if (batch.size() == BATCH_SIZE) flush();
+        }
+
+        void reject(int row, String error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("row", row);
+                entry.put("error", error);
+                errors.add(entry);
+            }
+        }
+
+        // A chunk that fails is rolled back and dropped, so a later flush does not repeat it
+        private void flush() {
+            if (batch.isEmpty()) return;
+            int[] argTypes = {Types.DATE, Types.INTEGER, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.VARCHAR};
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, argTypes));
+                imported += batch.size();
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // Called however reading ended (including a broken upload or a failed chunk): the chunks
+        // already committed stay imported, so they must reach the weekly rollups either way
+        void complete() {
+            try {
+                flush();
+            } finally {
+                if (imported > 0) {
+                    // Bulk inserts bypass saveSession, so the weekly rollups are recomputed once at the end
+                    volumeRollupService.rebuild(user);
+                }
+            }
+        }
+
+        Map<String, Object> result() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("imported", imported);
+            result.put("failed", failed);
+            result.put("errors", errors);
+            return result;
+        }
+    }
+
+    // Minimal RFC 4180 reader: comma separated, double-quoted fields may contain commas, quotes ("") and newlines
+    static final class CsvReader {
+        private final Reader reader;
+        private int next = -2;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) return null;
+            List<String> record = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) break;
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            field.append('"');
+                            read();
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(field.toString().trim());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            record.add(field.toString().trim());
+            return record;
+        }
+
+        private int read() throws IOException {
+            if (next != -2) {
+                int c = next;
+                next = -2;
+                return c;
+            }
+            return reader.read();
+        }
+
+        private int peek() throws IOException {
+            if (next == -2) next = reader.read();
+            return next;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.gymtracker.backend.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable columnar view of one user's training sessions, ordered by date ascending.
+ * Dates are stored as epoch days, missing weights as {@link #NO_WEIGHT} and muscle groups as
+ * byte codes into {@link #getMuscleGroupNames()} ({@link #NO_GROUP} when the session has none). Groups
+ * past the last code are counted as {@link MuscleGroupClassifier#OTHER}.
+ */
+public final class SessionSnapshot {
+    public static final int NO_WEIGHT = Integer.MIN_VALUE;
+    public static final byte NO_GROUP = -1;
+    private static final int MAX_GROUPS = Byte.MAX_VALUE;
+
+    private final int size;
+    private final int[] epochDays;
+    private final int[] weights;
+    private final byte[] muscleGroups;
+    private final String[] muscleGroupNames;
+
+    public SessionSnapshot(int[] epochDays, int[] weights, byte[] muscleGroups, String[] muscleGroupNames, int size) {
+        this.size = size;
+        this.epochDays = epochDays;
+        this.weights = weights;
+        this.muscleGroups = muscleGroups;
+        this.muscleGroupNames = muscleGroupNames;
+    }
+
+    /**
+     * Builds a snapshot from {@code [LocalDate date, Integer weight, String muscleGroup]} rows that are
+     * already sorted by date ascending.
+     */
+    public static SessionSnapshot fromRows(List<Object[]> rows) {
+        int n = rows.size();
+        int[] days = new int[n];
+        int[] weights = new int[n];
+        byte[] groups = new byte[n];
+        Map<String, Byte> codes = new HashMap<>();
+        String[] names = new String[8];
+        for (int i = 0; i < n; i++) {
+            Object[] row = rows.get(i);
+            days[i] = (int) ((LocalDate) row[0]).toEpochDay();
+            weights[i] = row[1] != null ? (Integer) row[1] : NO_WEIGHT;
+            String group = (String) row[2];
+            if (group == null) {
+                groups[i] = NO_GROUP;
+                continue;
+            }
+            Byte code = codes.get(group);
+            if (code == null && codes.size() >= MAX_GROUPS - 1) {
+                // The last code is kept for "other", which takes every group that finds no code left
+                group = MuscleGroupClassifier.OTHER;
+                code = codes.get(group);
+            }
+            if (code == null) {
+                code = (byte) codes.size();
+                codes.put(group, code);
+                if (code >= names.length) names = Arrays.copyOf(names, names.length * 2);
+                names[code] = group;
+            }
+            groups[i] = code;
+        }
+        return new SessionSnapshot(days, weights, groups, Arrays.copyOf(names, codes.size()), n);
+    }
+
+    public int size() { return size; }
+    public int epochDay(int i) { return epochDays[i]; }
+    public int weight(int i) { return weights[i]; }
+    public boolean hasWeight(int i) { return weights[i] != NO_WEIGHT; }
+    public byte muscleGroup(int i) { return muscleGroups[i]; }
+    public String[] getMuscleGroupNames() { return muscleGroupNames; }
+
+    // Index of the first session dated strictly after the given epoch day (size() if none)
+    public int firstIndexAfter(long epochDay) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] <= epochDay) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
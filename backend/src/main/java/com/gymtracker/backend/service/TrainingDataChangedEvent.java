@@ -0,0 +1,28 @@
+package com.gymtracker.backend.service;
+
+/**
+ * Published after a user's training sessions, plans or planned sessions were written, so derived
+ * per-user state (cached recommendations, in-memory aggregates) can be dropped or updated.
+ */
+public class TrainingDataChangedEvent {
+    private final Long userId;
+    private final boolean sessionsChanged;
+
+    public TrainingDataChangedEvent(Long userId) {
+        this(userId, true);
+    }
+
+    // sessionsChanged is false for writes that only touch plans or planned sessions
+    public TrainingDataChangedEvent(Long userId, boolean sessionsChanged) {
+        this.userId = userId;
+        this.sessionsChanged = sessionsChanged;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public boolean isSessionsChanged() {
+        return sessionsChanged;
+    }
+}
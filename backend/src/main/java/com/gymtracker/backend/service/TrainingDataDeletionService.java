@@ -0,0 +1,67 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.PlannedSessionRepository;
+import com.gymtracker.backend.repository.TrainingPlanRepository;
+import com.gymtracker.backend.repository.TrainingSessionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Set-based deletes for session history and plans. Rows are removed by id in fixed-size chunks,
+ * one short transaction per chunk, so no entities are loaded and locks are never held for the
+ * whole history at once.
+ */
+@Service
+public class TrainingDataDeletionService {
+    private static final int CHUNK_SIZE = 1000;
+
+    @Autowired private TrainingSessionRepository sessionRepo;
+    @Autowired private PlannedSessionRepository plannedRepo;
+    @Autowired private TrainingPlanRepository planRepo;
+    @Autowired private VolumeRollupService volumeRollupService;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    // The rollups are recomputed from whatever sessions remain, also when a later chunk fails
+    // after earlier ones have committed
+    public int clearSessions(User user) {
+        try {
+            return deleteInChunks(page -> sessionRepo.findIdsByUser(user, page), sessionRepo::deleteByIds);
+        } finally {
+            volumeRollupService.rebuild(user);
+        }
+    }
+
+    // Replaces the orphanRemoval cascade, which loaded every child of the plan before deleting it
+    public void deletePlan(User user, Long planId) {
+        try {
+            deleteInChunks(page -> sessionRepo.findIdsByPlanId(planId, page), sessionRepo::deleteByIds);
+            deleteInChunks(page -> plannedRepo.findIdsByPlanId(planId, page), plannedRepo::deleteByIds);
+            transactionTemplate.executeWithoutResult(status -> {
+                planRepo.deleteExercisesByPlanId(planId);
+                planRepo.deleteByPlanId(planId);
+            });
+        } finally {
+            // Some or all of the plan's sessions are gone, so the user's weekly rollups must be recomputed
+            volumeRollupService.rebuild(user);
+        }
+    }
+
+    private int deleteInChunks(Function<PageRequest, List<Long>> findIds, Function<Collection<Long>, Integer> deleteByIds) {
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(PageRequest.of(0, CHUNK_SIZE));
+                return ids.isEmpty() ? 0 : deleteByIds.apply(ids);
+            });
+            if (deleted == null || deleted == 0) return total;
+            total += deleted;
+        }
+    }
+}
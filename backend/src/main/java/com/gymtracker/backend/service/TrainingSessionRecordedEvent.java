@@ -0,0 +1,34 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.TrainingSession;
+
+import java.time.LocalDate;
+
+/**
+ * A single training session was saved. Carries the fields incremental per-user state needs, so
+ * listeners can apply it without reading the session back.
+ */
+public class TrainingSessionRecordedEvent extends TrainingDataChangedEvent {
+    private final Long sessionId;
+    private final LocalDate date;
+    private final Integer weight;
+
+    public TrainingSessionRecordedEvent(TrainingSession session) {
+        super(session.getUser().getId());
+        this.sessionId = session.getId();
+        this.date = session.getDate();
+        this.weight = session.getWeight();
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Integer getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,70 @@
+package com.gymtracker.backend.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Recent training of one user: day and weight of every session dated within the last
+ * {@link #WINDOW_DAYS} days (or later), keyed by session id. Adding by id is idempotent, so a
+ * session event that races with the initial load from the database is never counted twice.
+ * Windows are evaluated against the current date on every read, so nothing needs to roll over.
+ */
+final class TrainingState {
+    static final int WINDOW_DAYS = 14;
+    private static final long NO_WEIGHT = Long.MIN_VALUE;
+
+    // session id -> {epochDay, weight or NO_WEIGHT}
+    private final Map<Long, long[]> sessions = new HashMap<>();
+
+    /** Count, weight sum and first/last day of the sessions dated after a given day. */
+    static final class Window {
+        final int sessions;
+        final long weightSum;
+        final long firstDay;
+        final long lastDay;
+
+        Window(int sessions, long weightSum, long firstDay, long lastDay) {
+            this.sessions = sessions;
+            this.weightSum = weightSum;
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+        }
+    }
+
+    synchronized void add(Long sessionId, LocalDate date, Integer weight) {
+        long day = date.toEpochDay();
+        if (day <= windowStart()) return;
+        sessions.put(sessionId, new long[]{day, weight == null ? NO_WEIGHT : weight});
+    }
+
+    // Sessions dated after today minus the given number of days (which must not exceed WINDOW_DAYS)
+    synchronized Window window(int days) {
+        prune();
+        long after = LocalDate.now().toEpochDay() - days;
+        int count = 0;
+        long weightSum = 0;
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (long[] session : sessions.values()) {
+            if (session[0] <= after) continue;
+            count++;
+            if (session[1] != NO_WEIGHT) weightSum += session[1];
+            first = Math.min(first, session[0]);
+            last = Math.max(last, session[0]);
+        }
+        return new Window(count, weightSum, first, last);
+    }
+
+    private void prune() {
+        long start = windowStart();
+        for (Iterator<long[]> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (it.next()[0] <= start) it.remove();
+        }
+    }
+
+    private static long windowStart() {
+        return LocalDate.now().toEpochDay() - WINDOW_DAYS;
+    }
+}
@@ -0,0 +1,170 @@
+package com.gymtracker.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.TrainingSessionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user {@link TrainingState} kept in memory and updated from training data events, so the
+ * readiness endpoints answer without touching the database. A state is loaded from the session
+ * table on first use, updated in place for every recorded session and dropped after bulk changes
+ * (imports, deletes) to be reloaded on next use. Events are local to this node, so each state is
+ * also reloaded once it is {@code training-state.ttl-seconds} old to pick up other nodes' writes.
+ */
+@Service
+public class TrainingStateService {
+    private static final int RECOVERY_STATUS_DAYS = 7;
+
+    @Autowired private TrainingSessionRepository sessionRepo;
+
+    private final Cache<Long, TrainingState> states;
+
+    public TrainingStateService(@Value("${training-state.max-users:100000}") long maxUsers,
+                                @Value("${training-state.ttl-seconds:300}") long ttlSeconds) {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.states = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                // Age counts from the load; in-place updates through the event listener do not extend it
+                .expireAfter(new Expiry<Long, TrainingState>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, TrainingState state, long currentTime) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, TrainingState state, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, TrainingState state, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @EventListener
+    public void onTrainingDataChanged(TrainingDataChangedEvent event) {
+        if (event instanceof TrainingSessionRecordedEvent) {
+            TrainingSessionRecordedEvent recorded = (TrainingSessionRecordedEvent) event;
+            // Waits for a load of the same user in progress, then applies the session to its result
+            states.asMap().computeIfPresent(event.getUserId(), (id, state) -> {
+                state.add(recorded.getSessionId(), recorded.getDate(), recorded.getWeight());
+                return state;
+            });
+        } else if (event.isSessionsChanged()) {
+            states.invalidate(event.getUserId());
+        }
+    }
+
+    // Discards the user's state and reconstructs it from the session table
+    public Map<String, Object> rebuild(User user) {
+        states.invalidate(user.getId());
+        TrainingState state = state(user);
+        TrainingState.Window week = state.window(RECOVERY_STATUS_DAYS);
+        TrainingState.Window fortnight = state.window(TrainingState.WINDOW_DAYS);
+        Map<String, Object> result = new HashMap<>();
+        result.put("sessionsLast7Days", week.sessions);
+        result.put("sessionsLast14Days", fortnight.sessions);
+        result.put("volumeLast14Days", (double) fortnight.weightSum * VolumeRollupService.VOLUME_PER_WEIGHT_UNIT);
+        result.put("lastWorkout", fortnight.sessions == 0 ? null : LocalDate.ofEpochDay(fortnight.lastDay).toString());
+        return result;
+    }
+
+    public Map<String, Object> getRecoveryRecommendations(User user) {
+        TrainingState.Window window = state(user).window(TrainingState.WINDOW_DAYS);
+        if (window.sessions == 0) return AnalyticsEngine.recoveryResult(0, 0, 0, 0);
+        return AnalyticsEngine.recoveryResult(window.sessions, window.firstDay, window.lastDay,
+                (double) window.weightSum * VolumeRollupService.VOLUME_PER_WEIGHT_UNIT);
+    }
+
+    public Map<String, Object> getRecoveryStatus(User user) {
+        TrainingState.Window window = state(user).window(RECOVERY_STATUS_DAYS);
+
+        Map<String, Object> result = new HashMap<>();
+
+        if (window.sessions == 0) {
+            result.put("status", "rested");
+            result.put("readiness", 100);
+            result.put("recommendation", "You're well-rested and ready for an intense workout!");
+            return result;
+        }
+
+        // Calculate days since last workout
+        LocalDate lastWorkout = LocalDate.ofEpochDay(window.lastDay);
+        long daysSinceLastWorkout = ChronoUnit.DAYS.between(lastWorkout, LocalDate.now());
+
+        // Training frequency in the last week
+        long sessionsThisWeek = window.sessions;
+
+        // Simple recovery algorithm
+        int readiness;
+        String status;
+        String recommendation;
+
+        if (daysSinceLastWorkout >= 3) {
+            readiness = 100;
+            status = "fully_recovered";
+            recommendation = "You're fully recovered! Perfect time for a challenging workout.";
+        } else if (daysSinceLastWorkout >= 2) {
+            readiness = 85;
+            status = "recovered";
+            recommendation = "Good recovery status. You can train at high intensity.";
+        } else if (daysSinceLastWorkout == 1) {
+            readiness = sessionsThisWeek >= 4 ? 60 : 75;
+            status = sessionsThisWeek >= 4 ? "moderate_fatigue" : "slightly_fatigued";
+            recommendation = sessionsThisWeek >= 4 ?
+                "Consider a light session or active recovery." :
+                "You can train, but consider reducing intensity slightly.";
+        } else {
+            readiness = 45;
+            status = "high_fatigue";
+            recommendation = "High training frequency detected. Consider rest or very light activity.";
+        }
+
+        result.put("status", status);
+        result.put("readiness", readiness);
+        result.put("recommendation", recommendation);
+        result.put("daysSinceLastWorkout", daysSinceLastWorkout);
+        result.put("sessionsThisWeek", sessionsThisWeek);
+
+        return result;
+    }
+
+    // Most recent session in the last two weeks, or null
+    public LocalDate lastWorkout(User user) {
+        TrainingState.Window window = state(user).window(TrainingState.WINDOW_DAYS);
+        return window.sessions == 0 ? null : LocalDate.ofEpochDay(window.lastDay);
+    }
+
+    public Cache<?, ?> getCache() {
+        return states;
+    }
+
+    private TrainingState state(User user) {
+        return states.get(user.getId(), id -> load(user));
+    }
+
+    private TrainingState load(User user) {
+        TrainingState state = new TrainingState();
+        LocalDate after = LocalDate.now().minusDays(TrainingState.WINDOW_DAYS);
+        for (Object[] row : sessionRepo.findRecentSessionsByUser(user, after)) {
+            state.add((Long) row[0], (LocalDate) row[1], (Integer) row[2]);
+        }
+        return state;
+    }
+}
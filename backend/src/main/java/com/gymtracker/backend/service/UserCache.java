@@ -0,0 +1,45 @@
+package com.gymtracker.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, time-limited cache of users by username, used to resolve the authenticated user once per
+ * request without a database round trip. Entries must be invalidated whenever a user is modified.
+ */
+@Component
+public class UserCache {
+    @Autowired private UserRepository userRepository;
+
+    private final Cache<String, User> cache;
+
+    public UserCache(@Value("${user.cache.max-size:10000}") long maxSize,
+                     @Value("${user.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findByUsername(String username) {
+        // Misses for unknown users are not cached
+        return Optional.ofNullable(cache.get(username, key -> userRepository.findByUsername(key).orElse(null)));
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    public Cache<String, User> getCache() {
+        return cache;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.ZoneId;
 import java.util.Optional;
 
 @Service
@@ -16,6 +17,15 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ReminderTimes reminderTimes;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
     public User registerUser(String username, String password, Integer height, Integer weight, String gender, Integer age, String email) {
         if (userRepository.findByUsername(username).isPresent()) {
             throw new RuntimeException("Username already exists");
@@ -39,7 +49,7 @@ public class UserService {
         return userRepository.findByUsername(username);
     }
 
-    public User updateUserDetails(String username, Integer height, Integer weight, String gender, Integer age, Integer goalWeight, String email) {
+    public User updateUserDetails(String username, Integer height, Integer weight, String gender, Integer age, Integer goalWeight, String email, String timezone) {
         User user = userRepository.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found"));
         user.setHeight(height);
         user.setWeight(weight);
@@ -47,6 +57,16 @@ public class UserService {
         user.setAge(age);
         user.setGoalWeight(goalWeight);
         if (email != null) user.setEmail(email);
-        return userRepository.save(user);
+        boolean timezoneChanged = timezone != null && !timezone.equals(user.getTimezone());
+        if (timezoneChanged) {
+            // Rejects unknown zone ids with a DateTimeException
+            user.setTimezone(ZoneId.of(timezone).getId());
+        }
+        User saved = userRepository.save(user);
+        if (timezoneChanged) reminderTimes.reschedule(saved);
+        userCache.invalidate(username);
+        // Plans and sessions embed the user, so cached responses are outdated
+        dataVersionService.bump(saved.getId());
+        return saved;
     }
 }
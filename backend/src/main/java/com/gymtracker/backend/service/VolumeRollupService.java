@@ -0,0 +1,139 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.TrainingSession;
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.model.WeeklyVolumeRollup;
+import com.gymtracker.backend.repository.DailySessionTotals;
+import com.gymtracker.backend.repository.SessionTotals;
+import com.gymtracker.backend.repository.TrainingSessionRepository;
+import com.gymtracker.backend.repository.WeeklyVolumeRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Keeps the per-user weekly volume rollup table in step with training session writes and
+ * answers volume analytics from it.
+ */
+@Service
+public class VolumeRollupService {
+    // Estimate volume as weight * estimated sets * estimated reps (3 sets of 5 reps)
+    public static final int VOLUME_PER_WEIGHT_UNIT = 15;
+
+    @Autowired private WeeklyVolumeRollupRepository rollupRepo;
+    @Autowired private TrainingSessionRepository sessionRepo;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    public static double sessionVolume(Integer weight) {
+        return weight == null ? 0.0 : weight * VOLUME_PER_WEIGHT_UNIT;
+    }
+
+    public static LocalDate weekStart(LocalDate date) {
+        // Get week starting Monday
+        return date.minusDays(date.getDayOfWeek().getValue() - 1);
+    }
+
+    /**
+     * Saves a new session and adds it to its week's rollup in one transaction. When the first two
+     * sessions of a week are written concurrently, both find no rollup row and one insert violates
+     * the unique (user, week) key; that transaction is rolled back and retried once, and its update
+     * then finds the row the other one created.
+     */
+    public TrainingSession saveSession(TrainingSession session) {
+        try {
+            return transactionTemplate.execute(status -> saveWithRollup(session));
+        } catch (DataIntegrityViolationException e) {
+            // The rolled back insert left its generated id behind
+            session.setId(null);
+            return transactionTemplate.execute(status -> saveWithRollup(session));
+        }
+    }
+
+    private TrainingSession saveWithRollup(TrainingSession session) {
+        TrainingSession saved = sessionRepo.save(session);
+        User user = saved.getUser();
+        LocalDate week = weekStart(saved.getDate());
+        double volume = sessionVolume(saved.getWeight());
+        if (rollupRepo.addSession(user, week, volume) == 0) {
+            WeeklyVolumeRollup rollup = new WeeklyVolumeRollup();
+            rollup.setUser(user);
+            rollup.setWeekStart(week);
+            rollup.setVolume(volume);
+            rollup.setSessionCount(1);
+            rollupRepo.save(rollup);
+        }
+        return saved;
+    }
+
+    // Recompute every week for the user from the session table (used after bulk deletes and for backfill)
+    @Transactional
+    public void rebuild(User user) {
+        rollupRepo.deleteByUser(user);
+        Map<LocalDate, WeeklyVolumeRollup> weeks = new HashMap<>();
+        for (DailySessionTotals day : sessionRepo.sumByUserGroupByDate(user)) {
+            WeeklyVolumeRollup rollup = weeks.computeIfAbsent(weekStart(day.getDate()), week -> {
+                WeeklyVolumeRollup r = new WeeklyVolumeRollup();
+                r.setUser(user);
+                r.setWeekStart(week);
+                return r;
+            });
+            rollup.setVolume(rollup.getVolume() + day.getWeightSum() * VOLUME_PER_WEIGHT_UNIT);
+            rollup.setSessionCount(rollup.getSessionCount() + day.getSessionCount().intValue());
+        }
+        rollupRepo.saveAll(weeks.values());
+    }
+
+    @Transactional
+    public void rebuildAll() {
+        for (User user : sessionRepo.findDistinctUsers()) {
+            rebuild(user);
+        }
+    }
+
+    public boolean isEmpty() {
+        return rollupRepo.count() == 0;
+    }
+
+    /**
+     * Weekly volume for sessions dated after {@code after}. Whole weeks come straight from the rollup
+     * table; only the partially covered first week is aggregated from the session table.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getVolumeAnalytics(User user, LocalDate after) {
+        LocalDate firstDay = after.plusDays(1);
+        LocalDate firstWeek = weekStart(firstDay);
+
+        Map<String, Double> weeklyVolume = new LinkedHashMap<>();
+        Map<String, Integer> weeklySessions = new LinkedHashMap<>();
+        double totalVolume = 0;
+        int totalSessions = 0;
+
+        for (WeeklyVolumeRollup rollup : rollupRepo.findByUserAndWeekStartGreaterThanEqualOrderByWeekStartDesc(user, firstWeek)) {
+            double volume = rollup.getVolume();
+            int count = rollup.getSessionCount();
+            if (rollup.getWeekStart().equals(firstWeek) && !firstDay.equals(firstWeek)) {
+                SessionTotals partial = sessionRepo.sumByUserAndDateRange(user, after, firstWeek.plusDays(6));
+                volume = partial.getWeightSum() * VOLUME_PER_WEIGHT_UNIT;
+                count = partial.getSessionCount().intValue();
+            }
+            if (count == 0) continue;
+            String weekKey = rollup.getWeekStart().toString();
+            weeklyVolume.put(weekKey, volume);
+            weeklySessions.put(weekKey, count);
+            totalVolume += volume;
+            totalSessions += count;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("weeklyVolume", weeklyVolume);
+        result.put("weeklySessions", weeklySessions);
+        result.put("totalVolume", totalVolume);
+        result.put("totalSessions", totalSessions);
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+-- Schema as created by Hibernate's ddl-auto=update before migrations were introduced. Databases
+-- created that way are baselined at version 0 (spring.flyway.baseline-version), so this script
+-- also runs against them: every statement is guarded and only adds what an older schema lacks.
+-- Plain SQL understood by both H2 and PostgreSQL.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    height INTEGER,
+    weight INTEGER,
+    gender VARCHAR(255),
+    age INTEGER,
+    goal_weight INTEGER,
+    email VARCHAR(255),
+    timezone VARCHAR(64)
+);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS timezone VARCHAR(64);
+
+CREATE TABLE IF NOT EXISTS training_plan (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    description VARCHAR(255),
+    user_id BIGINT REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS training_plan_exercises (
+    training_plan_id BIGINT NOT NULL REFERENCES training_plan (id),
+    exercises VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS training_plan_template (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    description VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS training_plan_template_exercises (
+    training_plan_template_id BIGINT NOT NULL REFERENCES training_plan_template (id),
+    exercises VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS training_session (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date DATE,
+    weight INTEGER,
+    notes VARCHAR(255),
+    muscle_group VARCHAR(64),
+    plan_id BIGINT REFERENCES training_plan (id),
+    user_id BIGINT REFERENCES users (id)
+);
+ALTER TABLE training_session ADD COLUMN IF NOT EXISTS muscle_group VARCHAR(64);
+CREATE INDEX IF NOT EXISTS idx_training_session_user_muscle_group ON training_session (user_id, muscle_group);
+
+CREATE TABLE IF NOT EXISTS planned_session (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date DATE,
+    notes VARCHAR(255),
+    completed BOOLEAN NOT NULL,
+    muscle_group VARCHAR(64),
+    remind_at TIMESTAMP,
+    title VARCHAR(255),
+    session_type VARCHAR(64),
+    target_muscle VARCHAR(64),
+    intensity VARCHAR(32),
+    estimated_time INTEGER,
+    plan_id BIGINT REFERENCES training_plan (id),
+    user_id BIGINT REFERENCES users (id)
+);
+ALTER TABLE planned_session ADD COLUMN IF NOT EXISTS muscle_group VARCHAR(64);
+ALTER TABLE planned_session ADD COLUMN IF NOT EXISTS remind_at TIMESTAMP;
+ALTER TABLE planned_session ADD COLUMN IF NOT EXISTS title VARCHAR(255);
+ALTER TABLE planned_session ADD COLUMN IF NOT EXISTS session_type VARCHAR(64);
+ALTER TABLE planned_session ADD COLUMN IF NOT EXISTS target_muscle VARCHAR(64);
+ALTER TABLE planned_session ADD COLUMN IF NOT EXISTS intensity VARCHAR(32);
+ALTER TABLE planned_session ADD COLUMN IF NOT EXISTS estimated_time INTEGER;
+CREATE INDEX IF NOT EXISTS idx_planned_session_user_muscle_group ON planned_session (user_id, muscle_group);
+CREATE INDEX IF NOT EXISTS idx_planned_session_remind_at ON planned_session (remind_at);
+
+CREATE TABLE IF NOT EXISTS achievement (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    achievement_type VARCHAR(255),
+    achievement_key VARCHAR(255),
+    title VARCHAR(255),
+    description VARCHAR(255),
+    badge_icon VARCHAR(255),
+    badge_color VARCHAR(255),
+    points_awarded INTEGER,
+    user_id BIGINT REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS weekly_volume_rollup (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    week_start DATE NOT NULL,
+    volume DOUBLE PRECISION NOT NULL,
+    session_count INTEGER NOT NULL,
+    UNIQUE (user_id, week_start)
+);
+
+CREATE TABLE IF NOT EXISTS reminder_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    planned_session_id BIGINT NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body VARCHAR(2000) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP,
+    claim_token VARCHAR(36),
+    claimed_at TIMESTAMP,
+    last_error VARCHAR(500),
+    CONSTRAINT uk_reminder_outbox_planned_session UNIQUE (planned_session_id)
+);
+CREATE INDEX IF NOT EXISTS idx_reminder_outbox_status_next_attempt ON reminder_outbox (status, next_attempt_at);
+
+CREATE TABLE IF NOT EXISTS reminder_shard_lease (
+    shard_id INTEGER PRIMARY KEY,
+    owner VARCHAR(100),
+    lease_until TIMESTAMP,
+    processed_until TIMESTAMP,
+    run_until TIMESTAMP,
+    cursor_remind_at TIMESTAMP,
+    last_planned_session_id BIGINT NOT NULL,
+    completed BOOLEAN NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Per-user history and date-range finders filter by user and range or order by date
+CREATE INDEX IF NOT EXISTS idx_training_session_user_date ON training_session (user_id, date);
+CREATE INDEX IF NOT EXISTS idx_planned_session_user_date ON planned_session (user_id, date);
+-- Upcoming sessions (reminder time backfill, rescheduling) range over date and skip completed ones
+CREATE INDEX IF NOT EXISTS idx_planned_session_date_completed ON planned_session (date, completed);
@@ -0,0 +1,2 @@
+-- Per-user counter bumped on every change to the user's training data, used as the ETag of GET responses
+ALTER TABLE users ADD COLUMN IF NOT EXISTS data_version BIGINT DEFAULT 0 NOT NULL;
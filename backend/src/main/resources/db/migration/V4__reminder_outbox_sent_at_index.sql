@@ -0,0 +1,2 @@
+-- Reminders sent in the last minute are counted on every outbox poll to apply the shared rate limit
+CREATE INDEX IF NOT EXISTS idx_reminder_outbox_sent_at ON reminder_outbox (sent_at);
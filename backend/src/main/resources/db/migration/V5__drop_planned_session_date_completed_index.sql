@@ -0,0 +1,5 @@
+-- V2 described idx_planned_session_date_completed as serving the reminder time backfill and rescheduling,
+-- but neither uses it: the backfill selects on remind_at IS NULL (idx_planned_session_remind_at) and
+-- rescheduling is per user (idx_planned_session_user_date). No query filters on completed, so it only
+-- costs writes. V2 is left as applied, since editing it would change its checksum.
+DROP INDEX IF EXISTS idx_planned_session_date_completed;
@@ -0,0 +1,120 @@
+package com.gymtracker.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gymtracker.backend.config.QueryCountGuard;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statements per request for the list endpoints, counted by {@link QueryCountGuard}. The second-level
+ * cache is off so every plan and exercise list would have to come from the database: the bounds only
+ * hold while plans are loaded with the sessions and exercise lists in batches, not one per row.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        // Keeps the cached data version from being reloaded during the test
+        "data-version.ttl-seconds=3600"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListQueryCountTest {
+    private static final int PLANS = 5;
+    private static final int SESSIONS_PER_PLAN = 4;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    private String authorization;
+
+    @BeforeAll
+    void seed() throws Exception {
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"counted\",\"password\":\"pw\",\"email\":\"counted@example.com\"}"))
+                .andExpect(status().isOk());
+        MvcResult login = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"counted\",\"password\":\"pw\"}"))
+                .andExpect(status().isOk()).andReturn();
+        authorization = "Bearer " + json(login).get("token").asText();
+
+        LocalDate date = LocalDate.now().minusDays(PLANS * SESSIONS_PER_PLAN);
+        for (int p = 0; p < PLANS; p++) {
+            MvcResult plan = mockMvc.perform(post("/api/training/plans").header(HttpHeaders.AUTHORIZATION, authorization)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"Plan " + p + "\",\"exercises\":[\"Squats\",\"Bench Press\",\"Rows\"]}"))
+                    .andExpect(status().isOk()).andReturn();
+            long planId = json(plan).get("id").asLong();
+            for (int s = 0; s < SESSIONS_PER_PLAN; s++) {
+                date = date.plusDays(1);
+                mockMvc.perform(post("/api/training/sessions").header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"planId\":" + planId + ",\"date\":\"" + date + "\",\"weight\":" + (60 + s) + ",\"notes\":\"squats\"}"))
+                        .andExpect(status().isOk());
+                mockMvc.perform(post("/api/training/planned").header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"plan\":{\"id\":" + planId + "},\"date\":\"" + date.plusYears(1) + "\",\"notes\":\"bench\"}"))
+                        .andExpect(status().isOk());
+            }
+        }
+    }
+
+    @Test
+    void sessionList() throws Exception {
+        assertThat(statements("/api/training/sessions")).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void sessionPage() throws Exception {
+        assertThat(statements("/api/training/sessions?limit=20")).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void plannedSessions() throws Exception {
+        assertThat(statements("/api/training/planned")).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void plans() throws Exception {
+        assertThat(statements("/api/training/plans")).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void personalBests() throws Exception {
+        assertThat(statements("/api/training/personal-bests")).isLessThanOrEqualTo(1);
+    }
+
+    // Statements of the second call; the first loads the per-user caches (user, data version)
+    private int statements(String url) throws Exception {
+        request(url);
+        MvcResult result = request(url);
+        assertThat(json(result).toString()).contains("Plan");
+        return (Integer) result.getRequest().getAttribute(QueryCountGuard.STATEMENTS_ATTRIBUTE);
+    }
+
+    private MvcResult request(String url) throws Exception {
+        return mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk()).andReturn();
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,109 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.service.AnalyticsEngine.PeriodMetric;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyticsEngineTest {
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    @Test
+    void periodExcludesTheDayAfterItsLastDay() {
+        SessionSnapshot snapshot = snapshot(new Object[][]{{0, 100}, {1, 100}, {7, 100}});
+
+        List<Map<String, Object>> periods = AnalyticsEngine.findBestPerformancePeriods(snapshot, 0, 7, PeriodMetric.SESSION_COUNT, 1);
+
+        assertThat(periods).hasSize(1);
+        assertThat(periods.get(0).get("startDate")).isEqualTo(START);
+        assertThat(periods.get(0).get("endDate")).isEqualTo(START.plusDays(6));
+        assertThat(periods.get(0).get("sessions")).isEqualTo(2);
+    }
+
+    @Test
+    void matchesBruteForceOnSmallHistories() {
+        Random random = new Random(42);
+        for (int history = 0; history < 500; history++) {
+            int size = random.nextInt(12);
+            List<Object[]> rows = new ArrayList<>();
+            int day = 0;
+            for (int i = 0; i < size; i++) {
+                // Several sessions share a date, some have no weight
+                day += random.nextInt(3) == 0 ? 0 : random.nextInt(5);
+                rows.add(new Object[]{day, random.nextInt(4) == 0 ? null : 40 + random.nextInt(60)});
+            }
+            SessionSnapshot snapshot = snapshot(rows.toArray(new Object[0][]));
+            for (PeriodMetric metric : PeriodMetric.values()) {
+                for (int windowDays : new int[]{1, 3, 7}) {
+                    int top = 1 + random.nextInt(3);
+                    assertThat(AnalyticsEngine.findBestPerformancePeriods(snapshot, 0, windowDays, metric, top))
+                            .as("history %s, %s over %d days, top %d", Arrays.deepToString(rows.toArray()), metric, windowDays, top)
+                            .isEqualTo(bruteForce(snapshot, windowDays, metric, top));
+                }
+            }
+        }
+    }
+
+    // Every anchor's window summed from scratch, then the best non-overlapping periods picked by full comparison
+    private static List<Map<String, Object>> bruteForce(SessionSnapshot s, int windowDays, PeriodMetric metric, int top) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < s.size(); i++) {
+            if (metric == PeriodMetric.SESSION_COUNT || s.hasWeight(i)) candidates.add(i);
+        }
+        List<Map<String, Object>> scored = new ArrayList<>();
+        for (int a = 0; a < candidates.size() - 2; a++) {
+            int startDay = s.epochDay(candidates.get(a));
+            if (a > 0 && s.epochDay(candidates.get(a - 1)) == startDay) continue;
+            int sessions = 0;
+            int weighted = 0;
+            long weightSum = 0;
+            for (int i : candidates) {
+                if (s.epochDay(i) < startDay || s.epochDay(i) > startDay + windowDays - 1) continue;
+                sessions++;
+                if (s.hasWeight(i)) {
+                    weighted++;
+                    weightSum += s.weight(i);
+                }
+            }
+            if (sessions < 2) continue;
+            Map<String, Object> period = new HashMap<>();
+            period.put("startDate", LocalDate.ofEpochDay(startDay));
+            period.put("endDate", LocalDate.ofEpochDay(startDay + windowDays - 1));
+            period.put("sessions", sessions);
+            period.put("averageWeight", weighted == 0 ? 0.0 : (double) weightSum / weighted);
+            period.put("totalVolume", (double) weightSum * VolumeRollupService.VOLUME_PER_WEIGHT_UNIT);
+            period.put("score", metric.score(weightSum, sessions));
+            scored.add(period);
+        }
+        List<Map<String, Object>> chosen = new ArrayList<>();
+        while (chosen.size() < top) {
+            Map<String, Object> best = null;
+            for (Map<String, Object> period : scored) {
+                double score = (Double) period.get("score");
+                if (score <= 0 || (best != null && score <= (Double) best.get("score"))) continue;
+                boolean overlaps = false;
+                for (Map<String, Object> c : chosen) {
+                    LocalDate start = (LocalDate) period.get("startDate");
+                    LocalDate end = (LocalDate) period.get("endDate");
+                    overlaps |= !start.isAfter((LocalDate) c.get("endDate")) && !((LocalDate) c.get("startDate")).isAfter(end);
+                }
+                if (!overlaps) best = period;
+            }
+            if (best == null) break;
+            chosen.add(best);
+        }
+        return chosen;
+    }
+
+    // {day offset from START, weight or null} rows, already in date order
+    private static SessionSnapshot snapshot(Object[][] sessions) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] session : sessions) {
+            rows.add(new Object[]{START.plusDays((Integer) session[0]), session[1], null});
+        }
+        return SessionSnapshot.fromRows(rows);
+    }
+}
@@ -0,0 +1,80 @@
+package com.gymtracker.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TCP relay in front of the test SMTP server that counts the connections made through it.
+ */
+final class ConnectionCountingRelay implements AutoCloseable {
+    private final ServerSocket server;
+    private final int targetPort;
+    private final AtomicInteger connections = new AtomicInteger();
+
+    ConnectionCountingRelay(int port, int targetPort) throws IOException {
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.targetPort = targetPort;
+        Thread acceptor = new Thread(this::accept, "smtp-relay");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    void reset() {
+        connections.set(0);
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                Socket target = new Socket(InetAddress.getLoopbackAddress(), targetPort);
+                connections.incrementAndGet();
+                pump(client, target);
+                pump(target, client);
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+    }
+
+    private static void pump(Socket from, Socket to) {
+        Thread thread = new Thread(() -> {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // Either side closed
+            } finally {
+                closeQuietly(from);
+                closeQuietly(to);
+            }
+        }, "smtp-relay-pump");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+}
@@ -0,0 +1,86 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.ReminderOutbox;
+import com.gymtracker.backend.repository.ReminderOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "reminders.mail.batch-size=2",
+        "reminders.mail.rate-per-minute=5"
+})
+@ActiveProfiles("test")
+class ReminderDispatcherRateLimitTest {
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired private ReminderDispatcher dispatcher;
+    @Autowired private ReminderOutboxRepository outboxRepo;
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxRepo.deleteAll();
+    }
+
+    @Test
+    void claimsNoMoreThanTheRateLimitPerMinute() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            outboxRepo.save(ReminderDispatcherTest.row("user" + i + "@example.com"));
+        }
+
+        dispatcher.dispatch();
+        ReminderDispatcherTest.awaitUnclaimed(outboxRepo);
+        dispatcher.dispatch();
+        ReminderDispatcherTest.awaitUnclaimed(outboxRepo);
+
+        // Batches of 2, 2 and 1, then nothing until a minute after the first sends
+        assertThat(outboxRepo.countByStatus(ReminderOutbox.Status.SENT)).isEqualTo(5);
+        assertThat(outboxRepo.countByStatus(ReminderOutbox.Status.PENDING)).isEqualTo(7);
+        assertThat(greenMail.getReceivedMessages()).hasSize(5);
+    }
+
+    @Test
+    void countsRemindersSentAndClaimedByOtherNodes() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 2; i++) {
+            ReminderOutbox sent = ReminderDispatcherTest.row("sent" + i + "@example.com");
+            sent.setStatus(ReminderOutbox.Status.SENT);
+            sent.setSentAt(now.minusSeconds(30));
+            outboxRepo.save(sent);
+        }
+        // Sent before the window, so it no longer counts
+        ReminderOutbox old = ReminderDispatcherTest.row("old@example.com");
+        old.setStatus(ReminderOutbox.Status.SENT);
+        old.setSentAt(now.minusMinutes(2));
+        outboxRepo.save(old);
+        ReminderOutbox sending = ReminderDispatcherTest.row("sending@example.com");
+        sending.setStatus(ReminderOutbox.Status.SENDING);
+        sending.setClaimToken("other-node");
+        sending.setClaimedAt(now);
+        outboxRepo.save(sending);
+        for (int i = 0; i < 5; i++) {
+            outboxRepo.save(ReminderDispatcherTest.row("user" + i + "@example.com"));
+        }
+
+        dispatcher.dispatch();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (outboxRepo.countByStatus(ReminderOutbox.Status.SENT) < 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // 2 sent and 1 in flight elsewhere leave 2 of the 5 permits
+        assertThat(outboxRepo.countByStatus(ReminderOutbox.Status.SENT)).isEqualTo(5);
+        assertThat(outboxRepo.countByStatus(ReminderOutbox.Status.PENDING)).isEqualTo(3);
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+    }
+}
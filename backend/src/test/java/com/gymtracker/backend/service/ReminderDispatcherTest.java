@@ -0,0 +1,135 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.ReminderOutbox;
+import com.gymtracker.backend.repository.ReminderOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.mail.port=" + ReminderDispatcherTest.RELAY_PORT,
+        "reminders.mail.batch-size=3",
+        "reminders.mail.rate-per-minute=0",
+        "reminders.mail.max-attempts=2",
+        "reminders.mail.retry-backoff-seconds=1"
+})
+@ActiveProfiles("test")
+class ReminderDispatcherTest {
+    static final int RELAY_PORT = 3125;
+    // Valid for JavaMail, but the test server answers RCPT TO with 501 since the address contains '>'
+    static final String REJECTED_RECIPIENT = "\"no>reply\"@example.com";
+
+    private static final AtomicLong plannedSessionIds = new AtomicLong();
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private static ConnectionCountingRelay relay;
+
+    @Autowired private ReminderDispatcher dispatcher;
+    @Autowired private ReminderOutboxRepository outboxRepo;
+
+    @BeforeAll
+    static void startRelay() throws Exception {
+        relay = new ConnectionCountingRelay(RELAY_PORT, ServerSetupTest.SMTP.getPort());
+    }
+
+    @AfterAll
+    static void stopRelay() throws Exception {
+        relay.close();
+    }
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxRepo.deleteAll();
+        relay.reset();
+    }
+
+    @Test
+    void sendsABatchOverOneConnection() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            queue("user" + i + "@example.com");
+        }
+
+        dispatcher.dispatch();
+        awaitUnclaimed(outboxRepo);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+        assertThat(relay.connections()).isEqualTo(1);
+        assertThat(outboxRepo.findAll()).allSatisfy(row -> {
+            assertThat(row.getStatus()).isEqualTo(ReminderOutbox.Status.SENT);
+            assertThat(row.getAttempts()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void retriesRejectedMessagesWithBackoffUntilMaxAttempts() throws Exception {
+        ReminderOutbox delivered = queue("user@example.com");
+        ReminderOutbox rejected = queue(REJECTED_RECIPIENT);
+        LocalDateTime firstAttempt = LocalDateTime.now();
+
+        dispatcher.dispatch();
+        awaitUnclaimed(outboxRepo);
+
+        // Only the rejected message of the batch is retried, 1s (the configured backoff) later
+        assertThat(relay.connections()).isEqualTo(1);
+        assertThat(outboxRepo.findById(delivered.getId()).get().getStatus()).isEqualTo(ReminderOutbox.Status.SENT);
+        ReminderOutbox retry = outboxRepo.findById(rejected.getId()).get();
+        assertThat(retry.getStatus()).isEqualTo(ReminderOutbox.Status.PENDING);
+        assertThat(retry.getAttempts()).isEqualTo(1);
+        assertThat(retry.getLastError()).isNotNull();
+        assertThat(retry.getNextAttemptAt()).isAfterOrEqualTo(firstAttempt.plusSeconds(1));
+
+        // Not due yet
+        dispatcher.dispatch();
+        awaitUnclaimed(outboxRepo);
+        assertThat(outboxRepo.findById(rejected.getId()).get().getAttempts()).isEqualTo(1);
+
+        Thread.sleep(Math.max(0, Duration.between(LocalDateTime.now(), retry.getNextAttemptAt()).toMillis()) + 100);
+        dispatcher.dispatch();
+        awaitUnclaimed(outboxRepo);
+
+        ReminderOutbox failed = outboxRepo.findById(rejected.getId()).get();
+        assertThat(failed.getStatus()).isEqualTo(ReminderOutbox.Status.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    private ReminderOutbox queue(String recipient) {
+        return outboxRepo.save(row(recipient));
+    }
+
+    static ReminderOutbox row(String recipient) {
+        LocalDateTime now = LocalDateTime.now();
+        ReminderOutbox row = new ReminderOutbox();
+        row.setPlannedSessionId(plannedSessionIds.incrementAndGet());
+        row.setRecipient(recipient);
+        row.setSubject("Training reminder");
+        row.setBody("Reminder: you have a planned training session tomorrow.");
+        row.setNextAttemptAt(now);
+        row.setCreatedAt(now);
+        return row;
+    }
+
+    // Claimed batches are sent on the worker pool; waits until every outcome is recorded
+    static void awaitUnclaimed(ReminderOutboxRepository outboxRepo) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (outboxRepo.countByStatus(ReminderOutbox.Status.SENDING) > 0) {
+            assertThat(System.currentTimeMillis()).as("batches sent within 10s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
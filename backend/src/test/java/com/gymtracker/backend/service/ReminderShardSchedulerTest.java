@@ -0,0 +1,81 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.PlannedSession;
+import com.gymtracker.backend.model.ReminderOutbox;
+import com.gymtracker.backend.model.ReminderShardLease;
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.PlannedSessionRepository;
+import com.gymtracker.backend.repository.ReminderOutboxRepository;
+import com.gymtracker.backend.repository.ReminderShardLeaseRepository;
+import com.gymtracker.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "reminders.shards=1")
+@ActiveProfiles("test")
+class ReminderShardSchedulerTest {
+    @Autowired private ReminderShardScheduler scheduler;
+    @Autowired private UserRepository userRepo;
+    @Autowired private PlannedSessionRepository plannedRepo;
+    @Autowired private ReminderOutboxRepository outboxRepo;
+    @Autowired private ReminderShardLeaseRepository leaseRepo;
+
+    @Test
+    void resumesACrashedNodesRunAfterItsCursor() {
+        User user = new User();
+        user.setUsername("resumed");
+        user.setPassword("pw");
+        user.setEmail("resumed@example.com");
+        userRepo.save(user);
+        LocalDateTime processedUntil = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).minusHours(1);
+        LocalDateTime runUntil = processedUntil.plusMinutes(5);
+        PlannedSession first = planned(user, processedUntil.plusMinutes(1));
+        PlannedSession cursor = planned(user, processedUntil.plusMinutes(2));
+        // Due at the cursor's time but after it in (remindAt, id) order
+        PlannedSession sameTime = planned(user, processedUntil.plusMinutes(2));
+        PlannedSession last = planned(user, runUntil);
+        PlannedSession nextRun = planned(user, runUntil.plusMinutes(1));
+
+        // The crashed node queued up to the cursor, then its lease expired mid-run
+        ReminderShardLease lease = new ReminderShardLease();
+        lease.setShardId(0);
+        lease.setOwner("crashed-node");
+        lease.setLeaseUntil(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+        lease.setProcessedUntil(processedUntil);
+        lease.setRunUntil(runUntil);
+        lease.setCursorRemindAt(cursor.getRemindAt());
+        lease.setLastPlannedSessionId(cursor.getId());
+        leaseRepo.save(lease);
+
+        scheduler.sendPlannedSessionReminders();
+
+        List<Long> queued = new ArrayList<>();
+        for (ReminderOutbox row : outboxRepo.findAll()) queued.add(row.getPlannedSessionId());
+        assertThat(queued).containsExactlyInAnyOrder(sameTime.getId(), last.getId())
+                .doesNotContain(first.getId(), cursor.getId(), nextRun.getId());
+        ReminderShardLease finished = leaseRepo.findById(0).get();
+        assertThat(finished.getProcessedUntil()).isEqualTo(runUntil);
+        assertThat(finished.getRunUntil()).isNull();
+        assertThat(finished.isCompleted()).isTrue();
+        assertThat(finished.getOwner()).isNull();
+    }
+
+    private PlannedSession planned(User user, LocalDateTime remindAt) {
+        PlannedSession session = new PlannedSession();
+        session.setUser(user);
+        session.setDate(LocalDate.now().plusDays(1));
+        session.setRemindAt(remindAt);
+        return plannedRepo.save(session);
+    }
+}
@@ -0,0 +1,87 @@
+package com.gymtracker.backend.service;
+
+import com.gymtracker.backend.model.PlannedSession;
+import com.gymtracker.backend.model.ReminderOutbox;
+import com.gymtracker.backend.model.User;
+import com.gymtracker.backend.repository.PlannedSessionRepository;
+import com.gymtracker.backend.repository.ReminderOutboxRepository;
+import com.gymtracker.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 02:30 falls inside Berlin's spring-forward gap and its fall-back overlap
+@SpringBootTest(properties = {
+        "reminders.send-time=02:30",
+        "reminders.slice-minutes=5"
+})
+@ActiveProfiles("test")
+class ReminderTimesTest {
+    @Autowired private ReminderTimes reminderTimes;
+    @Autowired private UserRepository userRepo;
+    @Autowired private PlannedSessionRepository plannedRepo;
+    @Autowired private ReminderOutboxRepository outboxRepo;
+
+    @Test
+    void sendTimeInASpringForwardGapMovesPastTheGap() {
+        // Clocks jump from 02:00 to 03:00 CEST on 2026-03-29, so 02:30 becomes 03:30 CEST
+        LocalDateTime at = reminderTimes.remindAt(LocalDate.of(2026, 3, 30), user("gap", "Europe/Berlin"));
+        assertThat(at).isEqualTo(LocalDateTime.of(2026, 3, 29, 1, 30));
+    }
+
+    @Test
+    void sendTimeInAFallBackOverlapUsesTheEarlierOffset() {
+        // 02:30 happens twice on 2026-10-25: first at +02:00, then at +01:00
+        LocalDateTime at = reminderTimes.remindAt(LocalDate.of(2026, 10, 26), user("overlap", "Europe/Berlin"));
+        assertThat(at).isEqualTo(LocalDateTime.of(2026, 10, 25, 0, 30));
+    }
+
+    @Test
+    void rescheduleMovesPastRemindersToTheCurrentSlice() {
+        User user = userRepo.save(user("moved", "Asia/Tokyo"));
+        LocalDate today = LocalDate.now(ZoneId.of("Asia/Tokyo"));
+        LocalDateTime earlier = LocalDateTime.of(2000, 1, 1, 0, 0);
+        // Today's reminder was due yesterday in any timezone
+        PlannedSession today1 = planned(user, today, earlier);
+        PlannedSession queued = planned(user, today, earlier);
+        PlannedSession later = planned(user, today.plusDays(10), earlier);
+        ReminderOutbox row = ReminderDispatcherTest.row("moved@example.com");
+        row.setPlannedSessionId(queued.getId());
+        outboxRepo.save(row);
+
+        LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC);
+        reminderTimes.reschedule(user);
+        LocalDateTime after = LocalDateTime.now(ZoneOffset.UTC);
+
+        assertThat(plannedRepo.findById(today1.getId()).get().getRemindAt())
+                .isAfter(before).isBeforeOrEqualTo(after.plusMinutes(5));
+        assertThat(plannedRepo.findById(queued.getId()).get().getRemindAt()).isEqualTo(earlier);
+        assertThat(plannedRepo.findById(later.getId()).get().getRemindAt())
+                .isEqualTo(reminderTimes.remindAt(later.getDate(), user));
+    }
+
+    private User user(String name, String timezone) {
+        User user = new User();
+        user.setUsername(name);
+        user.setPassword("pw");
+        user.setEmail(name + "@example.com");
+        user.setTimezone(timezone);
+        return user;
+    }
+
+    private PlannedSession planned(User user, LocalDate date, LocalDateTime remindAt) {
+        PlannedSession session = new PlannedSession();
+        session.setUser(user);
+        session.setDate(date);
+        session.setRemindAt(remindAt);
+        return plannedRepo.save(session);
+    }
+}
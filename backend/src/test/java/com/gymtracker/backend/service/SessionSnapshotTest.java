@@ -0,0 +1,31 @@
+package com.gymtracker.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionSnapshotTest {
+    @Test
+    void countsGroupsPastTheLastCodeAsOther() {
+        List<Object[]> rows = new ArrayList<>();
+        LocalDate date = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < 200; i++) {
+            rows.add(new Object[]{date, 100, "group" + i});
+        }
+        rows.add(new Object[]{date, 100, null});
+
+        SessionSnapshot snapshot = SessionSnapshot.fromRows(rows);
+
+        String[] names = snapshot.getMuscleGroupNames();
+        assertThat(names).hasSize(Byte.MAX_VALUE).contains("group0", "group125").doesNotContain("group126");
+        assertThat(names[names.length - 1]).isEqualTo(MuscleGroupClassifier.OTHER);
+        for (int i = 126; i < 200; i++) {
+            assertThat(names[snapshot.muscleGroup(i)]).isEqualTo(MuscleGroupClassifier.OTHER);
+        }
+        assertThat(snapshot.muscleGroup(200)).isEqualTo(SessionSnapshot.NO_GROUP);
+    }
+}
@@ -0,0 +1,75 @@
+package com.gymtracker.backend.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analytics hot paths behind /api/analytics/performance-trends, /recovery-recommendations and
+ * /summary, measured on in-memory snapshots so database time is excluded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int sessions;
+
+    private List<Object[]> rows;
+    private SessionSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        rows = SyntheticHistory.rows(sessions, 42);
+        snapshot = SessionSnapshot.fromRows(rows);
+    }
+
+    @Benchmark
+    public SessionSnapshot buildSnapshot() {
+        return SessionSnapshot.fromRows(rows);
+    }
+
+    @Benchmark
+    public String calculatePerformanceTrend() {
+        int n = snapshot.size();
+        return AnalyticsEngine.calculatePerformanceTrend(new AnalyticsEngine.Pass(snapshot, n, n, 0, n, 0));
+    }
+
+    @Benchmark
+    public boolean detectPlateau() {
+        int n = snapshot.size();
+        return AnalyticsEngine.detectPlateau(new AnalyticsEngine.Pass(snapshot, n, n, 0, n, 0));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> findBestPerformancePeriod() {
+        return AnalyticsEngine.findBestPerformancePeriods(snapshot, 0, AnalyticsEngine.DEFAULT_PERIOD_DAYS,
+                AnalyticsEngine.PeriodMetric.AVG_WEIGHT, 1);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> findBestPerformancePeriodsTop5() {
+        return AnalyticsEngine.findBestPerformancePeriods(snapshot, 0, AnalyticsEngine.DEFAULT_PERIOD_DAYS,
+                AnalyticsEngine.PeriodMetric.TOTAL_VOLUME, 5);
+    }
+
+    // Average rest days come out of the recovery accumulators of the shared pass
+    @Benchmark
+    public Map<String, Object> calculateAverageRestDays() {
+        int n = snapshot.size();
+        AnalyticsEngine.Pass pass = new AnalyticsEngine.Pass(snapshot, n, n, n, 0, 0);
+        return AnalyticsEngine.recoveryResult(pass.recoverySessions, pass.recoveryFirstDay, pass.recoveryLastDay,
+                pass.recoveryVolume);
+    }
+
+    // Every dashboard metric in the single pass used by /summary
+    @Benchmark
+    public AnalyticsEngine.Pass summaryPass() {
+        return new AnalyticsEngine.Pass(snapshot, 0, 0, 0, 0, snapshot.size());
+    }
+}
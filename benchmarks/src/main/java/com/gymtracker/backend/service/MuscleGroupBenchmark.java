@@ -0,0 +1,37 @@
+package com.gymtracker.backend.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Muscle group extraction from session notes (the fallback path of extractMuscleGroup and the
+ * write-time classification), over every note of a synthetic history.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MuscleGroupBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int sessions;
+
+    private MuscleGroupClassifier classifier;
+    private String[] notes;
+
+    @Setup
+    public void setUp() {
+        classifier = new MuscleGroupClassifier();
+        notes = SyntheticHistory.notes(sessions, 42);
+    }
+
+    @Benchmark
+    public void extractMuscleGroup(Blackhole blackhole) {
+        for (String note : notes) {
+            blackhole.consume(classifier.classify(note));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.gymtracker.backend.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recommendation generation behind /api/ai-recommendations/workout-suggestions. Its input is the
+ * muscle group frequency of the last two weeks, built here from synthetic histories of each size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecommendationBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int sessions;
+
+    @Param({"strength", "muscle_building", "endurance", "general"})
+    public String goal;
+
+    private LocalDate lastWorkout;
+    private Map<String, Integer> muscleGroupFrequency;
+
+    @Setup
+    public void setUp() {
+        List<Object[]> rows = SyntheticHistory.rows(sessions, 42);
+        lastWorkout = (LocalDate) rows.get(rows.size() - 1)[0];
+        muscleGroupFrequency = new HashMap<>();
+        LocalDate since = LocalDate.now().minusDays(14);
+        for (Object[] row : rows) {
+            String group = (String) row[2];
+            if (((LocalDate) row[0]).isAfter(since) && group != null && !MuscleGroupClassifier.OTHER.equals(group)) {
+                muscleGroupFrequency.merge(group, 1, Integer::sum);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> generateRecommendations() {
+        return RecommendationService.generateRecommendations(lastWorkout, muscleGroupFrequency, 60, "full_gym", goal);
+    }
+}
@@ -0,0 +1,48 @@
+package com.gymtracker.backend.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic training histories shaped like real ones: roughly every other day, a slowly
+ * rising weight with noise, some unweighted sessions and free-text notes naming a muscle group.
+ */
+public final class SyntheticHistory {
+    private static final String[] NOTES = {
+            "Chest day, bench press 5x5", "back and biceps", "Legs: squats + lunges", "shoulders press",
+            "arms finisher", "[core] planks and hollow holds", "easy cardio", "Triceps dips", "glutes bridge",
+            "abs circuit after run", "Heavy deadlifts (back)", "Incline press for upper chest"
+    };
+
+    private SyntheticHistory() {
+    }
+
+    /** {@code [LocalDate date, Integer weight, String muscleGroup, String notes]} rows, oldest first, ending today. */
+    public static List<Object[]> rows(int sessions, long seed) {
+        Random random = new Random(seed);
+        MuscleGroupClassifier classifier = new MuscleGroupClassifier();
+        // Dates walk back from today in 0-3 day steps (same-day sessions included), then rows are emitted oldest first
+        LocalDate[] dates = new LocalDate[sessions];
+        LocalDate date = LocalDate.now();
+        for (int i = sessions - 1; i >= 0; i--) {
+            dates[i] = date;
+            date = date.minusDays(random.nextInt(4));
+        }
+        List<Object[]> rows = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            Integer weight = random.nextInt(10) == 0 ? null : 60 + i * 40 / sessions + random.nextInt(15);
+            String notes = random.nextInt(8) == 0 ? null : NOTES[random.nextInt(NOTES.length)];
+            rows.add(new Object[]{dates[i], weight, classifier.classify(notes), notes});
+        }
+        return rows;
+    }
+
+    public static String[] notes(int sessions, long seed) {
+        List<Object[]> rows = rows(sessions, seed);
+        String[] notes = new String[sessions];
+        for (int i = 0; i < sessions; i++) notes[i] = (String) rows.get(i)[3];
+        return notes;
+    }
+}
@@ -0,0 +1,108 @@
+package com.gymtracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thin JSON-over-HTTP client on top of HttpURLConnection. Connections are kept alive by the JDK's
+ * pool, so every response body is read to the end (or the error stream drained) before returning.
+ */
+class ApiClient {
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int timeoutMillis;
+
+    ApiClient(String baseUrl, int timeoutMillis) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    static final class Response {
+        final int status;
+        final byte[] body;
+
+        Response(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        JsonNode json() throws IOException {
+            return MAPPER.readTree(body);
+        }
+
+        @Override
+        public String toString() {
+            return status + " " + new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    Response get(String path, String token) throws IOException {
+        return send("GET", path, token, null);
+    }
+
+    Response post(String path, String token, Object body) throws IOException {
+        return send("POST", path, token, body);
+    }
+
+    Response send(String method, String path, String token, Object body) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        conn.setRequestMethod(method);
+        conn.setConnectTimeout(timeoutMillis);
+        conn.setReadTimeout(timeoutMillis);
+        conn.setRequestProperty("Accept", "application/json");
+        if (token != null) {
+            conn.setRequestProperty("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            byte[] payload = body instanceof byte[] ? (byte[]) body : MAPPER.writeValueAsBytes(body);
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", "application/json");
+            conn.setFixedLengthStreamingMode(payload.length);
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(payload);
+            }
+        }
+        int status = conn.getResponseCode();
+        InputStream in = status >= 400 ? conn.getErrorStream() : conn.getInputStream();
+        return new Response(status, readFully(in));
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        if (in == null) return new byte[0];
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    String login(String username, String password) throws IOException {
+        Map<String, String> body = new HashMap<>();
+        body.put("username", username);
+        body.put("password", password);
+        Response response = post("/api/auth/login", null, body);
+        if (!response.ok()) {
+            throw new IOException("Login failed for " + username + ": " + response);
+        }
+        return response.json().get("token").asText();
+    }
+}
@@ -0,0 +1,103 @@
+package com.gymtracker.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and error counters. Recording is lock-free (HdrHistogram
+ * {@link Recorder}), so worker threads never contend on the stats themselves.
+ */
+class EndpointStats {
+    // Anything slower than a minute is clamped rather than dropped
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile long startNanos = System.nanoTime();
+
+    private static final class Endpoint {
+        final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        final Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    void record(String endpoint, long latencyNanos, boolean ok) {
+        Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        e.recorder.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        if (!ok) e.errors.increment();
+    }
+
+    // Drops everything recorded so far (end of warmup) and restarts the throughput clock
+    synchronized void reset() {
+        for (Endpoint e : endpoints.values()) {
+            e.recorder.reset();
+            e.total.reset();
+            e.errors.reset();
+        }
+        startNanos = System.nanoTime();
+    }
+
+    // Folds the latest interval into the running totals and returns the total request count
+    synchronized long collect() {
+        long count = 0;
+        for (Endpoint e : endpoints.values()) {
+            e.total.add(e.recorder.getIntervalHistogram());
+            count += e.total.getTotalCount();
+        }
+        return count;
+    }
+
+    double elapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    synchronized void print(PrintStream out) {
+        collect();
+        double seconds = elapsedSeconds();
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long allErrors = 0;
+        out.println(String.format("%-48s %9s %7s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Endpoint e = entry.getValue();
+            all.add(e.total);
+            allErrors += e.errors.sum();
+            out.println(row(entry.getKey(), e.total, e.errors.sum(), seconds));
+        }
+        out.println(row("TOTAL", all, allErrors, seconds));
+    }
+
+    private static String row(String name, Histogram h, long errors, double seconds) {
+        return String.format("%-48s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, h.getTotalCount(), errors, h.getTotalCount() / seconds,
+                millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                millis(h.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    // One .hgrm percentile distribution per endpoint (plottable with HdrHistogram's plotter)
+    synchronized void writeHistograms(File dir) throws FileNotFoundException {
+        collect();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new FileNotFoundException("Cannot create " + dir);
+        }
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            String file = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(new File(dir, file))) {
+                entry.getValue().total.outputPercentileDistribution(out, 1e6);
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.gymtracker.loadtest;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end throughput suite for the REST API: seeds synthetic users through the API, then drives
+ * a weighted request mix with a fixed number of closed-loop workers and prints per-endpoint
+ * throughput and latency percentiles. See loadtest/README.md for the options.
+ */
+public class LoadTest {
+
+    static final class Options {
+        String baseUrl = "http://localhost:8080";
+        String userPrefix = "lt-user";
+        int users = 50;
+        int plansPerUser = 3;
+        int sessionsPerUser = 500;
+        int plannedPerUser = 10;
+        int concurrency = 16;
+        int durationSeconds = 60;
+        int warmupSeconds = 10;
+        int thinkTimeMillis = 0;
+        int timeoutMillis = 30000;
+        long seed = 42;
+        boolean seedOnly;
+        boolean skipSeed;
+        String histogramDir;
+        Map<String, Integer> mix = new HashMap<>();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            usage();
+            System.exit(2);
+            return;
+        }
+        // The JDK keeps only 5 idle keep-alive connections per host by default
+        System.setProperty("http.maxConnections", String.valueOf(Math.max(5, options.concurrency)));
+        ApiClient client = new ApiClient(options.baseUrl, options.timeoutMillis);
+        Seeder seeder = new Seeder(client, options);
+
+        List<Seeder.VirtualUser> users;
+        long start = System.nanoTime();
+        if (options.skipSeed) {
+            System.out.printf("Logging in %d existing users...%n", options.users);
+            users = prepare(seeder::attach);
+        } else {
+            System.out.printf("Seeding %d users (%d plans, %d sessions, %d planned sessions each)...%n",
+                    options.users, options.plansPerUser, options.sessionsPerUser, options.plannedPerUser);
+            users = prepare(seeder::seed);
+            long sessions = (long) options.users * options.sessionsPerUser;
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Seeded %d sessions in %.1fs (%.0f sessions/s)%n", sessions, seconds, sessions / seconds);
+        }
+        if (options.seedOnly) return;
+
+        run(client, users, options);
+    }
+
+    // Fails the run with the first worker's error instead of an ExecutionException stack trace
+    private static List<Seeder.VirtualUser> prepare(Callable<List<Seeder.VirtualUser>> step) throws Exception {
+        try {
+            return step.call();
+        } catch (ExecutionException e) {
+            System.err.println(e.getCause().getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    private static void run(ApiClient client, List<Seeder.VirtualUser> users, Options options) throws Exception {
+        TrafficMix mix = new TrafficMix(options.mix);
+        EndpointStats stats = new EndpointStats();
+        System.out.printf("Running %d workers for %ds after %ds warmup against %s%n",
+                options.concurrency, options.durationSeconds, options.warmupSeconds, options.baseUrl);
+        for (TrafficMix.Operation op : mix.operations()) {
+            System.out.printf("  %5.1f%%  %s%n", 100.0 * op.weight / mix.totalWeight(), op.name);
+        }
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        CountDownLatch finished = new CountDownLatch(options.concurrency);
+        AtomicLong failures = new AtomicLong();
+        for (int w = 0; w < options.concurrency; w++) {
+            final Random random = new Random(options.seed * 31 + w);
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        Seeder.VirtualUser user = users.get(random.nextInt(users.size()));
+                        TrafficMix.Operation op = mix.next(random);
+                        long t0 = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = op.call.run(client, user, random).ok();
+                        } catch (Exception e) {
+                            ok = false;
+                            if (failures.incrementAndGet() <= 5) {
+                                System.err.println(op.name + ": " + e);
+                            }
+                        }
+                        stats.record(op.name, System.nanoTime() - t0, ok);
+                        if (options.thinkTimeMillis > 0) {
+                            Thread.sleep(random.nextInt(2 * options.thinkTimeMillis + 1));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finished.countDown();
+                }
+            }, "loadtest-worker-" + w);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        if (options.warmupSeconds > 0) {
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(warmupEnd - System.nanoTime()));
+            stats.reset();
+            System.out.println("Warmup done, measuring...");
+        }
+        long previous = 0;
+        while (!finished.await(10, TimeUnit.SECONDS)) {
+            long count = stats.collect();
+            System.out.printf("  %6.0fs  %9d requests  %8.1f req/s (last 10s)%n",
+                    stats.elapsedSeconds(), count, (count - previous) / 10.0);
+            previous = count;
+        }
+
+        System.out.println();
+        stats.print(System.out);
+        if (options.histogramDir != null) {
+            stats.writeHistograms(new File(options.histogramDir));
+            System.out.println("Histograms written to " + options.histogramDir);
+        }
+    }
+
+    static Options parse(String[] args) {
+        Options o = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--seed-only": o.seedOnly = true; continue;
+                case "--skip-seed": o.skipSeed = true; continue;
+                case "--help": throw new IllegalArgumentException("");
+                default: break;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+            String value = args[++i];
+            switch (arg) {
+                case "--base-url": o.baseUrl = value; break;
+                case "--user-prefix": o.userPrefix = value; break;
+                case "--users": o.users = positive(arg, value); break;
+                case "--plans-per-user": o.plansPerUser = nonNegative(arg, value); break;
+                case "--sessions-per-user": o.sessionsPerUser = nonNegative(arg, value); break;
+                case "--planned-per-user": o.plannedPerUser = nonNegative(arg, value); break;
+                case "--concurrency": o.concurrency = positive(arg, value); break;
+                case "--duration-seconds": o.durationSeconds = positive(arg, value); break;
+                case "--warmup-seconds": o.warmupSeconds = nonNegative(arg, value); break;
+                case "--think-time-ms": o.thinkTimeMillis = nonNegative(arg, value); break;
+                case "--timeout-ms": o.timeoutMillis = positive(arg, value); break;
+                case "--seed": o.seed = Long.parseLong(value); break;
+                case "--histogram-dir": o.histogramDir = value; break;
+                case "--mix":
+                    for (String pair : value.split(",")) {
+                        int eq = pair.lastIndexOf('=');
+                        if (eq <= 0) throw new IllegalArgumentException("Bad --mix entry: " + pair);
+                        o.mix.put(pair.substring(0, eq).trim(), nonNegative(arg, pair.substring(eq + 1).trim()));
+                    }
+                    break;
+                default: throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (o.seedOnly && o.skipSeed) throw new IllegalArgumentException("--seed-only and --skip-seed are exclusive");
+        return o;
+    }
+
+    private static int nonNegative(String name, String value) {
+        int n;
+        try {
+            n = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " expects a number, got " + value);
+        }
+        if (n < 0) throw new IllegalArgumentException(name + " must not be negative");
+        return n;
+    }
+
+    private static int positive(String name, String value) {
+        int n = nonNegative(name, value);
+        if (n == 0) throw new IllegalArgumentException(name + " must be positive");
+        return n;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: java -jar loadtest/target/loadtest.jar [options]\n"
+                + "  --base-url URL            API root (default http://localhost:8080)\n"
+                + "  --users N                 synthetic users (default 50)\n"
+                + "  --user-prefix P           usernames are P-0..P-(N-1) (default lt-user)\n"
+                + "  --plans-per-user N        default 3\n"
+                + "  --sessions-per-user N     history rows, bulk imported (default 500)\n"
+                + "  --planned-per-user N      upcoming planned sessions (default 10)\n"
+                + "  --seed-only | --skip-seed only seed, or reuse users seeded by an earlier run\n"
+                + "  --concurrency N           closed-loop workers, also used for seeding (default 16)\n"
+                + "  --duration-seconds N      measured run length (default 60)\n"
+                + "  --warmup-seconds N        unmeasured warmup (default 10)\n"
+                + "  --think-time-ms N         mean pause between a worker's requests (default 0)\n"
+                + "  --mix name=w,...          override operation weights, e.g. summary=20,login=0\n"
+                + "  --histogram-dir DIR       write one .hgrm percentile file per endpoint\n"
+                + "  --timeout-ms N            per-request timeout (default 30000)\n"
+                + "  --seed N                  random seed (default 42)");
+    }
+}
@@ -0,0 +1,176 @@
+package com.gymtracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the synthetic users and their data through the REST API: plans and planned sessions
+ * one request each, training history through the bulk import endpoint (JDBC batch inserts plus
+ * one rollup rebuild per user), so seeded data is indistinguishable from real usage.
+ */
+class Seeder {
+    static final String PASSWORD = "loadtest";
+    // The import endpoint handles any size; chunking keeps request bodies and error reports small
+    private static final int IMPORT_CHUNK = 5000;
+
+    static final String[] EXERCISES = {
+            "Bench press", "Incline dumbbell press", "Back squat", "Leg press", "Deadlift",
+            "Romanian deadlift", "Pull ups", "Barbell rows", "Overhead press", "Lateral raises",
+            "Biceps curls", "Triceps pushdowns", "Lunges", "Calf raises", "Plank", "Cable crunches"
+    };
+
+    static final class VirtualUser {
+        final String username;
+        volatile String token;
+        final List<Long> planIds = new ArrayList<>();
+
+        VirtualUser(String username) {
+            this.username = username;
+        }
+    }
+
+    private final ApiClient client;
+    private final LoadTest.Options options;
+
+    Seeder(ApiClient client, LoadTest.Options options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    static String username(String prefix, int i) {
+        return prefix + "-" + i;
+    }
+
+    List<VirtualUser> seed() throws Exception {
+        return forEachUser(true);
+    }
+
+    // Logs the already seeded users in and looks up their plans
+    List<VirtualUser> attach() throws Exception {
+        return forEachUser(false);
+    }
+
+    private List<VirtualUser> forEachUser(boolean create) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(options.concurrency);
+        List<Future<VirtualUser>> futures = new ArrayList<>();
+        AtomicInteger done = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < options.users; i++) {
+            final int index = i;
+            futures.add(pool.submit(() -> {
+                VirtualUser user = create ? createUser(index) : loadUser(index);
+                int n = done.incrementAndGet();
+                if (create && (n % 50 == 0 || n == options.users)) {
+                    System.out.printf("  seeded %d/%d users (%.1fs)%n", n, options.users, (System.nanoTime() - start) / 1e9);
+                }
+                return user;
+            }));
+        }
+        pool.shutdown();
+        List<VirtualUser> users = new ArrayList<>();
+        try {
+            for (Future<VirtualUser> future : futures) {
+                users.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            pool.shutdownNow();
+            throw e;
+        }
+        return users;
+    }
+
+    private VirtualUser createUser(int index) throws IOException {
+        Random random = new Random(options.seed + index);
+        VirtualUser user = new VirtualUser(username(options.userPrefix, index));
+        Map<String, Object> registration = new HashMap<>();
+        registration.put("username", user.username);
+        registration.put("password", PASSWORD);
+        registration.put("height", 160 + random.nextInt(40));
+        registration.put("weight", 55 + random.nextInt(50));
+        registration.put("age", 18 + random.nextInt(50));
+        registration.put("gender", random.nextBoolean() ? "male" : "female");
+        ApiClient.Response registered = client.post("/api/auth/register", null, registration);
+        if (!registered.ok()) {
+            throw new IOException("Register failed for " + user.username + " (already seeded? use --skip-seed): " + registered);
+        }
+        user.token = client.login(user.username, PASSWORD);
+
+        for (int p = 0; p < options.plansPerUser; p++) {
+            Map<String, Object> plan = new HashMap<>();
+            plan.put("name", "Plan " + (p + 1));
+            plan.put("description", "Synthetic load test plan");
+            List<String> exercises = new ArrayList<>();
+            for (int e = 0; e < 5; e++) {
+                exercises.add(EXERCISES[random.nextInt(EXERCISES.length)]);
+            }
+            plan.put("exercises", exercises);
+            user.planIds.add(expectOk(client.post("/api/training/plans", user.token, plan)).json().get("id").asLong());
+        }
+
+        importHistory(user, random);
+
+        LocalDate today = LocalDate.now();
+        for (int s = 0; s < options.plannedPerUser; s++) {
+            Map<String, Object> planned = new HashMap<>();
+            planned.put("date", today.plusDays(1 + s).toString());
+            planned.put("notes", EXERCISES[random.nextInt(EXERCISES.length)]);
+            if (!user.planIds.isEmpty()) {
+                planned.put("plan", Collections.singletonMap("id", user.planIds.get(random.nextInt(user.planIds.size()))));
+            }
+            expectOk(client.post("/api/training/planned", user.token, planned));
+        }
+        return user;
+    }
+
+    // Roughly one session a day going back from today, several exercises per day when the count exceeds a year
+    private void importHistory(VirtualUser user, Random random) throws IOException {
+        int total = options.sessionsPerUser;
+        int days = Math.max(1, Math.min(total, 365));
+        List<Map<String, Object>> chunk = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int s = 0; s < total; s++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("date", today.minusDays((long) s * days / total).toString());
+            row.put("weight", 20 + random.nextInt(120));
+            row.put("notes", EXERCISES[random.nextInt(EXERCISES.length)] + " " + (3 + random.nextInt(3)) + "x" + (5 + random.nextInt(8)));
+            if (!user.planIds.isEmpty()) {
+                row.put("planId", user.planIds.get(random.nextInt(user.planIds.size())));
+            }
+            chunk.add(row);
+            if (chunk.size() == IMPORT_CHUNK) {
+                importChunk(user, chunk);
+            }
+        }
+        importChunk(user, chunk);
+    }
+
+    private void importChunk(VirtualUser user, List<Map<String, Object>> chunk) throws IOException {
+        if (chunk.isEmpty()) return;
+        JsonNode result = expectOk(client.post("/api/training/sessions/import", user.token, chunk)).json();
+        if (result.get("failed").asInt() > 0) {
+            throw new IOException("Import rejected rows for " + user.username + ": " + result.get("errors"));
+        }
+        chunk.clear();
+    }
+
+    private VirtualUser loadUser(int index) throws IOException {
+        VirtualUser user = new VirtualUser(username(options.userPrefix, index));
+        user.token = client.login(user.username, PASSWORD);
+        for (JsonNode plan : expectOk(client.get("/api/training/plans", user.token)).json()) {
+            user.planIds.add(plan.get("id").asLong());
+        }
+        return user;
+    }
+
+    private static ApiClient.Response expectOk(ApiClient.Response response) throws IOException {
+        if (!response.ok()) {
+            throw new IOException("Unexpected response: " + response);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,115 @@
+package com.gymtracker.loadtest;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Weighted request mix modelled on a user opening the app: mostly reads of sessions, analytics
+ * and recommendations, some session logging, and an occasional fresh login. Weights can be
+ * overridden per operation with {@code --mix name=weight,...}.
+ */
+class TrafficMix {
+    private static final String[] EQUIPMENT = {"full_gym", "dumbbells", "bodyweight"};
+    private static final String[] GOALS = {"general_fitness", "strength", "muscle_gain", "weight_loss", "endurance"};
+    private static final int[] AVAILABLE_TIME = {30, 45, 60, 90};
+
+    interface Call {
+        ApiClient.Response run(ApiClient client, Seeder.VirtualUser user, Random random) throws IOException;
+    }
+
+    static final class Operation {
+        final String name;
+        final int weight;
+        final Call call;
+
+        Operation(String name, int weight, Call call) {
+            this.name = name;
+            this.weight = weight;
+            this.call = call;
+        }
+    }
+
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+
+    static Map<String, Operation> defaults() {
+        Map<String, Operation> ops = new LinkedHashMap<>();
+        add(ops, "POST /api/auth/login", 2, (c, u, r) -> {
+            Map<String, String> body = new HashMap<>();
+            body.put("username", u.username);
+            body.put("password", Seeder.PASSWORD);
+            return c.post("/api/auth/login", null, body);
+        });
+        add(ops, "GET /api/training/sessions", 12, (c, u, r) -> c.get("/api/training/sessions?limit=50", u.token));
+        add(ops, "GET /api/training/plans", 6, (c, u, r) -> c.get("/api/training/plans", u.token));
+        add(ops, "GET /api/training/progress", 5, (c, u, r) -> c.get("/api/training/progress", u.token));
+        add(ops, "GET /api/training/personal-bests", 5, (c, u, r) -> c.get("/api/training/personal-bests", u.token));
+        add(ops, "POST /api/training/sessions", 8, (c, u, r) -> {
+            Map<String, Object> body = new HashMap<>();
+            body.put("date", LocalDate.now().toString());
+            body.put("weight", 20 + r.nextInt(120));
+            body.put("notes", Seeder.EXERCISES[r.nextInt(Seeder.EXERCISES.length)] + " 3x10");
+            if (!u.planIds.isEmpty()) {
+                body.put("planId", u.planIds.get(r.nextInt(u.planIds.size())));
+            }
+            return c.post("/api/training/sessions", u.token, body);
+        });
+        add(ops, "GET /api/analytics/summary", 10, (c, u, r) -> c.get("/api/analytics/summary", u.token));
+        add(ops, "GET /api/analytics/volume", 6, (c, u, r) -> c.get("/api/analytics/volume?days=30", u.token));
+        add(ops, "GET /api/analytics/muscle-balance", 5, (c, u, r) -> c.get("/api/analytics/muscle-balance", u.token));
+        add(ops, "GET /api/analytics/performance-trends", 5, (c, u, r) -> c.get("/api/analytics/performance-trends", u.token));
+        add(ops, "GET /api/analytics/recovery-recommendations", 4, (c, u, r) -> c.get("/api/analytics/recovery-recommendations", u.token));
+        add(ops, "POST /api/ai-recommendations/workout-suggestions", 8, (c, u, r) -> {
+            Map<String, Object> body = new HashMap<>();
+            body.put("availableTime", AVAILABLE_TIME[r.nextInt(AVAILABLE_TIME.length)]);
+            body.put("equipment", EQUIPMENT[r.nextInt(EQUIPMENT.length)]);
+            body.put("fitnessGoal", GOALS[r.nextInt(GOALS.length)]);
+            return c.post("/api/ai-recommendations/workout-suggestions", u.token, body);
+        });
+        add(ops, "GET /api/ai-recommendations/quick-suggestion", 8, (c, u, r) -> c.get("/api/ai-recommendations/quick-suggestion", u.token));
+        add(ops, "GET /api/ai-recommendations/recovery-status", 6, (c, u, r) -> c.get("/api/ai-recommendations/recovery-status", u.token));
+        return ops;
+    }
+
+    private static void add(Map<String, Operation> ops, String name, int weight, Call call) {
+        ops.put(name, new Operation(name, weight, call));
+    }
+
+    /**
+     * @param overrides "path-or-name=weight" pairs; a key matches every operation whose name ends
+     *                  with it, so "summary=0" or "/api/training/sessions=20" both work
+     */
+    TrafficMix(Map<String, Integer> overrides) {
+        for (Operation op : defaults().values()) {
+            int weight = op.weight;
+            for (Map.Entry<String, Integer> override : overrides.entrySet()) {
+                if (op.name.endsWith(override.getKey())) weight = override.getValue();
+            }
+            if (weight > 0) {
+                operations.add(new Operation(op.name, weight, op.call));
+                totalWeight += weight;
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no operations with a positive weight");
+        }
+    }
+
+    Operation next(Random random) {
+        int pick = random.nextInt(totalWeight);
+        for (Operation op : operations) {
+            pick -= op.weight;
+            if (pick < 0) return op;
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    List<Operation> operations() {
+        return operations;
+    }
+
+    int totalWeight() {
+        return totalWeight;
+    }
+}